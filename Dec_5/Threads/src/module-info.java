@@ -5,4 +5,5 @@
  * 
  */
 module Threads {
+	requires java.management;
 }
\ No newline at end of file
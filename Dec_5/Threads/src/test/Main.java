@@ -1,11 +1,19 @@
 package test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 public class Main {
 
-	public static void main(String[] args)
+	public static void main(String[] args) throws InterruptedException
 	{
-		Worker w=new Worker();
-		w.run();
+		try (TaskRunner runner = TaskRunner.virtual()) {
+			List<Worker> workers = new ArrayList<>();
+			for (int i = 0; i < 10; i++)
+				workers.add(new Worker());
+			System.out.println(runner.runAll(workers, Duration.ofSeconds(1)));
+		}
 	}
 
 }
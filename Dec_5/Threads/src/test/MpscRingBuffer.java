@@ -0,0 +1,82 @@
+package test;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and one consumer.
+ *
+ * Producers claim a slot by advancing the tail with a CAS, write the
+ * element and its enqueue time, and publish the element with a release
+ * store; the consumer waits for the element to appear, clears the slot and
+ * advances the head. Head and tail are {@link Sequence}s on their own cache
+ * lines, and producers remember the last head they read, so they only touch
+ * the consumer's line when the queue looks full. Everything either side
+ * writes lives in a padded Sequence, so the queue's own fields are only
+ * ever read and never share a line with a write.
+ */
+public class MpscRingBuffer<E> {
+
+	private final int mask;
+	private final AtomicReferenceArray<E> slots;
+	private final long[] enqueuedAt;
+	private final Sequence tail = new Sequence(0);
+	private final Sequence head = new Sequence(0);
+	/** Written by producers, on its own line so it does not disturb the tail CAS. */
+	private final Sequence cachedHead = new Sequence(0);
+	/** Written by the consumer on every poll. */
+	private final Sequence lastEnqueuedAt = new Sequence(0);
+
+	public MpscRingBuffer(int capacity) {
+		if (capacity < 2 || Integer.bitCount(capacity) != 1)
+			throw new IllegalArgumentException("capacity must be a power of two");
+		mask = capacity - 1;
+		slots = new AtomicReferenceArray<>(capacity);
+		enqueuedAt = new long[capacity];
+	}
+
+	public int capacity() {
+		return mask + 1;
+	}
+
+	/** Adds {@code e} unless the queue is full. Safe from any thread. */
+	public boolean offer(E e) {
+		long t;
+		do {
+			t = tail.get();
+			if (t - cachedHead.get() > mask) {
+				long h = head.get();
+				cachedHead.setRelease(h);
+				if (t - h > mask)
+					return false;
+			}
+		} while (!tail.compareAndSet(t, t + 1));
+		int i = (int) t & mask;
+		enqueuedAt[i] = System.nanoTime();
+		slots.setRelease(i, e);
+		return true;
+	}
+
+	/** Removes the oldest element, or returns null if there is none. Consumer thread only. */
+	public E poll() {
+		long h = head.get();
+		int i = (int) h & mask;
+		E e = slots.getAcquire(i);
+		if (e == null)
+			return null;
+		lastEnqueuedAt.setRelease(enqueuedAt[i]);
+		slots.lazySet(i, null);
+		head.setRelease(h + 1);
+		return e;
+	}
+
+	/** System.nanoTime at which the element last returned by {@link #poll} was offered. Consumer thread only. */
+	public long lastEnqueuedAt() {
+		return lastEnqueuedAt.get();
+	}
+
+	/** Elements claimed but not yet taken; a snapshot that may be stale by the time it is read. */
+	public int size() {
+		long h = head.get();
+		return (int) Math.max(0, Math.min(tail.get() - h, mask + 1));
+	}
+}
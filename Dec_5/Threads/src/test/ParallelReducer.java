@@ -0,0 +1,127 @@
+package test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntBinaryOperator;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Reduces large int[] and long[] arrays in parallel with an associative
+ * operator, for example {@link Worker#add}:
+ *
+ * <pre>
+ * Worker w = new Worker();
+ * long sum = new ParallelReducer().reduce(values, 0L, w::add);
+ * </pre>
+ *
+ * Ranges are split in halves until they are at most {@code threshold}
+ * elements long; each leaf is a plain loop over the array, and the halves
+ * are combined left before right, so the operator does not have to be
+ * commutative. Tasks keep their result in a primitive field instead of
+ * returning it from a RecursiveTask, so nothing is boxed along the way.
+ */
+public class ParallelReducer {
+
+	public static final int DEFAULT_THRESHOLD = 1 << 15;
+
+	private final ForkJoinPool pool;
+	private final int threshold;
+
+	public ParallelReducer() {
+		this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+	}
+
+	public ParallelReducer(ForkJoinPool pool, int threshold) {
+		if (threshold < 1)
+			throw new IllegalArgumentException("threshold must be positive");
+		this.pool = pool;
+		this.threshold = threshold;
+	}
+
+	/** {@code identity op a[0] op a[1] ...}, where identity must not change a value it is combined with. */
+	public int reduce(int[] a, int identity, IntBinaryOperator op) {
+		IntTask task = new IntTask(a, 0, a.length, identity, op, threshold);
+		pool.invoke(task);
+		return task.result;
+	}
+
+	public long reduce(long[] a, long identity, LongBinaryOperator op) {
+		LongTask task = new LongTask(a, 0, a.length, identity, op, threshold);
+		pool.invoke(task);
+		return task.result;
+	}
+
+	@SuppressWarnings("serial")
+	static final class IntTask extends RecursiveAction {
+		final int[] a;
+		final int from, to;
+		final int identity;
+		final IntBinaryOperator op;
+		final int threshold;
+		int result;
+
+		IntTask(int[] a, int from, int to, int identity, IntBinaryOperator op, int threshold) {
+			this.a = a;
+			this.from = from;
+			this.to = to;
+			this.identity = identity;
+			this.op = op;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= threshold) {
+				int r = identity;
+				for (int i = from; i < to; i++)
+					r = op.applyAsInt(r, a[i]);
+				result = r;
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			IntTask left = new IntTask(a, from, mid, identity, op, threshold);
+			IntTask right = new IntTask(a, mid, to, identity, op, threshold);
+			left.fork();
+			right.compute();
+			left.join();
+			result = op.applyAsInt(left.result, right.result);
+		}
+	}
+
+	@SuppressWarnings("serial")
+	static final class LongTask extends RecursiveAction {
+		final long[] a;
+		final int from, to;
+		final long identity;
+		final LongBinaryOperator op;
+		final int threshold;
+		long result;
+
+		LongTask(long[] a, int from, int to, long identity, LongBinaryOperator op, int threshold) {
+			this.a = a;
+			this.from = from;
+			this.to = to;
+			this.identity = identity;
+			this.op = op;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= threshold) {
+				long r = identity;
+				for (int i = from; i < to; i++)
+					r = op.applyAsLong(r, a[i]);
+				result = r;
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			LongTask left = new LongTask(a, from, mid, identity, op, threshold);
+			LongTask right = new LongTask(a, mid, to, identity, op, threshold);
+			left.fork();
+			right.compute();
+			left.join();
+			result = op.applyAsLong(left.result, right.result);
+		}
+	}
+}
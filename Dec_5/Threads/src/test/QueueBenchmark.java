@@ -0,0 +1,110 @@
+package test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes the same small tasks through a ThreadPoolExecutor on a bounded
+ * LinkedBlockingQueue and through a {@link RingBufferPool} with each
+ * {@link WaitStrategy}, from several producer threads, and prints
+ * tasks/sec for each (plus the ring pool's own metrics).
+ *
+ * <pre>
+ * java -p bin -m Threads/test.QueueBenchmark [tasks] [producers] [workers] [work per task]
+ * </pre>
+ *
+ * Both pools get the same total queue capacity and both make producers
+ * wait when it is full, so the difference is the queue hand-off itself.
+ */
+public class QueueBenchmark {
+
+	static final int CAPACITY = 1 << 14;
+
+	static volatile long sink;
+
+	interface Submitter {
+		void submit(Runnable task) throws InterruptedException;
+	}
+
+	public static void main(String[] args) throws InterruptedException {
+		int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+		int producers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+		int workers = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+		int work = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+		System.out.println(tasks + " tasks, " + producers + " producers, " + workers + " workers, "
+				+ Runtime.getRuntime().availableProcessors() + " cores");
+
+		Runnable task = () -> {
+			long x = System.identityHashCode(Thread.currentThread()) | 1;
+			for (int i = 0; i < work; i++) {
+				x ^= x << 13;
+				x ^= x >>> 7;
+				x ^= x << 17;
+			}
+			if (x == 0)
+				sink = x;
+		};
+
+		for (int round = 0; round < 2; round++) {
+			boolean report = round == 1;
+			executor(task, tasks, producers, workers, report);
+			for (WaitStrategy wait : WaitStrategy.values())
+				ring(task, tasks, producers, workers, wait, report);
+		}
+	}
+
+	private static void executor(Runnable task, int tasks, int producers, int workers, boolean report)
+			throws InterruptedException {
+		BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>(CAPACITY * workers);
+		ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, queue,
+				(r, executor) -> {
+					try {
+						executor.getQueue().put(r);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+		pool.prestartAllCoreThreads();
+		long elapsed = produce(pool::execute, task, tasks, producers);
+		pool.shutdown();
+		pool.awaitTermination(1, TimeUnit.HOURS);
+		elapsed = System.nanoTime() - elapsed;
+		if (report)
+			System.out.println(String.format("%-34s %,12d tasks/sec", "ThreadPoolExecutor + LBQ", tasks * 1_000_000_000L / elapsed));
+	}
+
+	private static void ring(Runnable task, int tasks, int producers, int workers, WaitStrategy wait, boolean report)
+			throws InterruptedException {
+		RingBufferPool pool = new RingBufferPool(workers, CAPACITY, wait);
+		long elapsed = produce(pool::submit, task, tasks, producers);
+		pool.close();
+		elapsed = System.nanoTime() - elapsed;
+		if (report) {
+			System.out.println(String.format("%-34s %,12d tasks/sec", "RingBufferPool " + wait, tasks * 1_000_000_000L / elapsed));
+			System.out.println("  " + pool.metrics());
+		}
+	}
+
+	/** Starts the producers and returns the System.nanoTime at which they started. */
+	private static long produce(Submitter submitter, Runnable task, int tasks, int producers) throws InterruptedException {
+		Thread[] threads = new Thread[producers];
+		long start = System.nanoTime();
+		for (int p = 0; p < producers; p++) {
+			int share = tasks / producers + (p < tasks % producers ? 1 : 0);
+			threads[p] = new Thread(() -> {
+				try {
+					for (int i = 0; i < share; i++)
+						submitter.submit(task);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}, "producer-" + p);
+			threads[p].start();
+		}
+		for (Thread t : threads)
+			t.join();
+		return start;
+	}
+}
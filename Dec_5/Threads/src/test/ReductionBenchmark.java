@@ -0,0 +1,104 @@
+package test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntBinaryOperator;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongSupplier;
+
+/**
+ * Compares {@link ParallelReducer} with a sequential loop, a sequential
+ * stream and a parallel stream, summing with {@link Worker#add} and taking
+ * the maximum with Math::max.
+ *
+ * <pre>
+ * java -p bin -m Threads/test.ReductionBenchmark [elements] [threshold...]
+ * </pre>
+ *
+ * Each variant runs a few warm-up rounds and then reports the best of
+ * the measured rounds, in ms and in GB/s of array read.
+ */
+public class ReductionBenchmark {
+
+	static final int WARMUP = 5;
+	static final int ROUNDS = 10;
+
+	static long sink;
+
+	public static void main(String[] args) {
+		int n = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+		int[] thresholds = args.length > 1
+				? Arrays.stream(args, 1, args.length).mapToInt(Integer::parseInt).toArray()
+				: new int[] { 1 << 12, ParallelReducer.DEFAULT_THRESHOLD, 1 << 18 };
+
+		Random random = new Random(42);
+		int[] ints = new int[n];
+		long[] longs = new long[n];
+		for (int i = 0; i < n; i++) {
+			ints[i] = random.nextInt();
+			longs[i] = random.nextLong();
+		}
+		Worker w = new Worker();
+		System.out.println(n + " elements, " + Runtime.getRuntime().availableProcessors() + " cores");
+
+		run("int sum", ints, 0, w::add, thresholds);
+		run("int max", ints, Integer.MIN_VALUE, Math::max, thresholds);
+		run("long sum", longs, 0L, w::add, thresholds);
+		run("long max", longs, Long.MIN_VALUE, Math::max, thresholds);
+		System.out.println("(checksum " + sink + ")");
+	}
+
+	private static void run(String name, int[] a, int identity, IntBinaryOperator op, int[] thresholds) {
+		long bytes = (long) a.length * Integer.BYTES;
+		System.out.println(name);
+		LongSupplier loop = () -> {
+			int r = identity;
+			for (int v : a)
+				r = op.applyAsInt(r, v);
+			return r;
+		};
+		long expected = loop.getAsLong();
+		report("sequential loop", bytes, expected, loop);
+		report("stream", bytes, expected, () -> Arrays.stream(a).reduce(identity, op));
+		report("parallel stream", bytes, expected, () -> Arrays.stream(a).parallel().reduce(identity, op));
+		for (int t : thresholds) {
+			ParallelReducer reducer = new ParallelReducer(ForkJoinPool.commonPool(), t);
+			report("fork/join, threshold " + t, bytes, expected, () -> reducer.reduce(a, identity, op));
+		}
+	}
+
+	private static void run(String name, long[] a, long identity, LongBinaryOperator op, int[] thresholds) {
+		long bytes = (long) a.length * Long.BYTES;
+		System.out.println(name);
+		LongSupplier loop = () -> {
+			long r = identity;
+			for (long v : a)
+				r = op.applyAsLong(r, v);
+			return r;
+		};
+		long expected = loop.getAsLong();
+		report("sequential loop", bytes, expected, loop);
+		report("stream", bytes, expected, () -> Arrays.stream(a).reduce(identity, op));
+		report("parallel stream", bytes, expected, () -> Arrays.stream(a).parallel().reduce(identity, op));
+		for (int t : thresholds) {
+			ParallelReducer reducer = new ParallelReducer(ForkJoinPool.commonPool(), t);
+			report("fork/join, threshold " + t, bytes, expected, () -> reducer.reduce(a, identity, op));
+		}
+	}
+
+	private static void report(String variant, long bytes, long expected, LongSupplier body) {
+		for (int i = 0; i < WARMUP; i++)
+			sink += body.getAsLong();
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < ROUNDS; i++) {
+			long start = System.nanoTime();
+			long r = body.getAsLong();
+			best = Math.min(best, System.nanoTime() - start);
+			sink += r;
+		}
+		if (body.getAsLong() != expected)
+			throw new IllegalStateException(variant + " disagrees with the sequential loop");
+		System.out.println(String.format("  %-28s %8.2f ms %7.2f GB/s", variant, best / 1e6, (double) bytes / best));
+	}
+}
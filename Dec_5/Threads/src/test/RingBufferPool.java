@@ -0,0 +1,233 @@
+package test;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed pool of worker threads, each draining its own {@link MpscRingBuffer}.
+ *
+ * A submitted task goes to a random worker's queue, or to the next one
+ * that has room. When every queue is full, {@link #submit} makes the
+ * producer back off until there is space again (backpressure) and
+ * {@link #trySubmit} returns false. Idle workers wait according to the
+ * pool's {@link WaitStrategy}.
+ *
+ * Each worker keeps its own metrics (tasks run, failures, time tasks spent
+ * queued, and a power-of-two histogram of that time), written only by that
+ * worker, so recording them costs no shared writes.
+ *
+ * Tasks accepted before {@link #close()} still run; callers must stop
+ * submitting before they close the pool.
+ */
+public class RingBufferPool implements AutoCloseable {
+
+	private static final int COMPLETED = 0, FAILED = 1, WAIT_SUM = 2, WAIT_MAX = 3, BUCKETS = 4;
+
+	private final Lane[] lanes;
+	private final WaitStrategy wait;
+	private final LongAdder stalls = new LongAdder();
+	private volatile boolean running = true;
+
+	public RingBufferPool(int threads, int capacityPerThread, WaitStrategy wait) {
+		this.wait = wait;
+		lanes = new Lane[threads];
+		for (int i = 0; i < threads; i++)
+			lanes[i] = new Lane(capacityPerThread, "ring-worker-" + i);
+		for (Lane lane : lanes)
+			lane.thread.start();
+	}
+
+	/** Queues {@code task}, or returns false if every queue is full. */
+	public boolean trySubmit(Runnable task) {
+		if (!running)
+			throw new RejectedExecutionException("pool is closed");
+		int n = lanes.length;
+		int first = n == 1 ? 0 : ThreadLocalRandom.current().nextInt(n);
+		for (int k = 0; k < n; k++) {
+			Lane lane = lanes[(first + k) % n];
+			if (lane.queue.offer(task)) {
+				if (lane.parked)
+					LockSupport.unpark(lane.thread);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/** Queues {@code task}, backing off while every queue is full. */
+	public void submit(Runnable task) throws InterruptedException {
+		if (trySubmit(task))
+			return;
+		stalls.increment();
+		for (int idle = 0; !trySubmit(task); idle++) {
+			if (Thread.interrupted())
+				throw new InterruptedException();
+			if (idle < WaitStrategy.SPINS)
+				Thread.onSpinWait();
+			else if (idle < WaitStrategy.SPINS + WaitStrategy.YIELDS)
+				Thread.yield();
+			else
+				LockSupport.parkNanos(10_000);
+		}
+	}
+
+	/** Tasks queued but not started, summed over all workers. */
+	public int depth() {
+		int depth = 0;
+		for (Lane lane : lanes)
+			depth += lane.queue.size();
+		return depth;
+	}
+
+	public long completed() {
+		return sum(COMPLETED);
+	}
+
+	public long failed() {
+		return sum(FAILED);
+	}
+
+	/** Times a producer found every queue full and had to wait. */
+	public long stalls() {
+		return stalls.sum();
+	}
+
+	public long meanWaitNanos() {
+		long n = completed() + failed();
+		return n == 0 ? 0 : sum(WAIT_SUM) / n;
+	}
+
+	public long maxWaitNanos() {
+		long max = 0;
+		for (Lane lane : lanes)
+			max = Math.max(max, lane.stats.get(WAIT_MAX));
+		return max;
+	}
+
+	/** Upper bound (next power of two) of the time {@code percentile} percent of tasks spent queued. */
+	public long waitPercentileNanos(double percentile) {
+		long[] buckets = new long[65];
+		long total = 0;
+		for (Lane lane : lanes) {
+			for (int b = 0; b < buckets.length; b++) {
+				long c = lane.stats.get(BUCKETS + b);
+				buckets[b] += c;
+				total += c;
+			}
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+		long seen = 0;
+		for (int b = 0; b < buckets.length; b++) {
+			seen += buckets[b];
+			if (seen >= rank)
+				return b == 0 ? 0 : b == 64 ? Long.MAX_VALUE : (1L << b) - 1;
+		}
+		return 0;
+	}
+
+	public String metrics() {
+		return "completed " + completed() + ", failed " + failed() + ", depth " + depth() + ", stalls " + stalls()
+				+ ", queue wait mean " + meanWaitNanos() + " ns, p99 < " + waitPercentileNanos(99) + " ns, max "
+				+ maxWaitNanos() + " ns";
+	}
+
+	private long sum(int stat) {
+		long sum = 0;
+		for (Lane lane : lanes)
+			sum += lane.stats.get(stat);
+		return sum;
+	}
+
+	/** Runs everything already queued, then stops the workers. */
+	@Override
+	public void close() {
+		running = false;
+		boolean interrupted = false;
+		for (Lane lane : lanes) {
+			LockSupport.unpark(lane.thread);
+			while (lane.thread.isAlive()) {
+				try {
+					lane.thread.join();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	private final class Lane implements Runnable {
+		final MpscRingBuffer<Runnable> queue;
+		final Thread thread;
+		final AtomicLongArray stats = new AtomicLongArray(BUCKETS + 65);
+		volatile boolean parked;
+
+		Lane(int capacity, String name) {
+			queue = new MpscRingBuffer<>(capacity);
+			thread = new Thread(this, name);
+		}
+
+		@Override
+		public void run() {
+			int idle = 0;
+			while (true) {
+				Runnable task = queue.poll();
+				if (task == null) {
+					if (!running && queue.size() == 0)
+						return;
+					idle = idle(idle);
+					continue;
+				}
+				idle = 0;
+				long waited = Math.max(0, System.nanoTime() - queue.lastEnqueuedAt());
+				add(WAIT_SUM, waited);
+				if (waited > stats.get(WAIT_MAX))
+					stats.lazySet(WAIT_MAX, waited);
+				add(BUCKETS + 64 - Long.numberOfLeadingZeros(waited), 1);
+				try {
+					task.run();
+					add(COMPLETED, 1);
+				} catch (Throwable t) {
+					add(FAILED, 1);
+				}
+			}
+		}
+
+		/** Single writer, so a plain read and an ordered store are enough. */
+		private void add(int stat, long delta) {
+			stats.lazySet(stat, stats.get(stat) + delta);
+		}
+
+		private int idle(int idle) {
+			switch (wait) {
+			case SPIN:
+				Thread.onSpinWait();
+				break;
+			case YIELD:
+				if (idle < WaitStrategy.SPINS)
+					Thread.onSpinWait();
+				else
+					Thread.yield();
+				break;
+			case PARK:
+				if (idle < WaitStrategy.SPINS) {
+					Thread.onSpinWait();
+				} else if (idle < WaitStrategy.SPINS + WaitStrategy.YIELDS) {
+					Thread.yield();
+				} else {
+					parked = true;
+					// re-check after announcing, so a producer that missed the flag cannot leave us asleep
+					if (queue.size() == 0 && running)
+						LockSupport.parkNanos(this, WaitStrategy.PARK_NANOS);
+					parked = false;
+				}
+				break;
+			}
+			return idle == Integer.MAX_VALUE ? idle : idle + 1;
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package test;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A long counter alone on its cache line(s). The padding fields sit in
+ * superclasses so the JVM cannot reorder them around the value, which
+ * keeps a producer's tail and a consumer's head from sharing a line.
+ */
+public class Sequence extends SequenceValue {
+
+	long p11, p12, p13, p14, p15, p16, p17;
+
+	private static final VarHandle VALUE;
+	static {
+		try {
+			VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	public Sequence(long initial) {
+		value = initial;
+	}
+
+	public long get() {
+		return value;
+	}
+
+	/** Store with release semantics only; enough for a single writer publishing progress. */
+	public void setRelease(long v) {
+		VALUE.setRelease(this, v);
+	}
+
+	public boolean compareAndSet(long expected, long v) {
+		return VALUE.compareAndSet(this, expected, v);
+	}
+}
+
+class SequencePadding {
+	long p01, p02, p03, p04, p05, p06, p07;
+}
+
+class SequenceValue extends SequencePadding {
+	volatile long value;
+}
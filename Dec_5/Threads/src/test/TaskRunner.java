@@ -0,0 +1,180 @@
+package test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs Runnables such as {@link Worker} either on one virtual thread per
+ * task or on a fixed pool of platform threads.
+ *
+ * {@link #runAll} fans a batch of tasks out and joins them: it only
+ * returns once every task of the batch has finished, so no task outlives
+ * the call. Each task gets its own timeout, counted from the moment it
+ * starts running (not from when it was queued); a task that runs too long
+ * is interrupted and reported as timed out. A task that ignores the
+ * interrupt is still waited for.
+ */
+public class TaskRunner implements AutoCloseable {
+
+	private static final int NEW = 0, RUNNING = 1, DONE = 2, STOPPING = 3, TIMED_OUT = 4, CANCELLED = 5;
+
+	private final ExecutorService executor;
+	private final ScheduledThreadPoolExecutor watchdog = new ScheduledThreadPoolExecutor(1, r -> {
+		Thread t = new Thread(r, "task-watchdog");
+		t.setDaemon(true);
+		return t;
+	});
+
+	private TaskRunner(ExecutorService executor) {
+		this.executor = executor;
+		// most tasks finish in time; drop their alarms right away instead of at the deadline
+		watchdog.setRemoveOnCancelPolicy(true);
+	}
+
+	public static TaskRunner virtual() {
+		return new TaskRunner(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("task-", 0).factory()));
+	}
+
+	public static TaskRunner platform(int threads) {
+		return new TaskRunner(Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("task-", 0).factory()));
+	}
+
+	/** Outcome of one {@link #runAll} batch. */
+	public static class Results {
+		private final int completed;
+		private final int timedOut;
+		private final List<Throwable> failures;
+
+		Results(int completed, int timedOut, List<Throwable> failures) {
+			this.completed = completed;
+			this.timedOut = timedOut;
+			this.failures = failures;
+		}
+
+		public int completed() {
+			return completed;
+		}
+
+		public int timedOut() {
+			return timedOut;
+		}
+
+		public List<Throwable> failures() {
+			return failures;
+		}
+
+		@Override
+		public String toString() {
+			return "completed " + completed + ", timed out " + timedOut + ", failed " + failures.size();
+		}
+	}
+
+	/**
+	 * Runs every task and waits for all of them. If the calling thread is
+	 * interrupted while waiting, tasks that have not started are skipped,
+	 * running ones are interrupted, and the call still waits for them
+	 * before rethrowing.
+	 */
+	public Results runAll(List<? extends Runnable> tasks, Duration timeout) throws InterruptedException {
+		CountDownLatch remaining = new CountDownLatch(tasks.size());
+		List<Task> batch = new ArrayList<>(tasks.size());
+		for (Runnable r : tasks) {
+			Task task = new Task(r, timeout, remaining);
+			batch.add(task);
+			executor.execute(task);
+		}
+		try {
+			remaining.await();
+		} catch (InterruptedException e) {
+			for (Task task : batch)
+				task.stop(CANCELLED);
+			boolean done = false;
+			while (!done) {
+				try {
+					remaining.await();
+					done = true;
+				} catch (InterruptedException again) {
+					// keep waiting, the batch must not outlive this call
+				}
+			}
+			throw e;
+		}
+
+		int completed = 0;
+		int timedOut = 0;
+		List<Throwable> failures = new ArrayList<>();
+		for (Task task : batch) {
+			if (task.state.get() == TIMED_OUT)
+				timedOut++;
+			else if (task.failure != null)
+				failures.add(task.failure);
+			else
+				completed++;
+		}
+		return new Results(completed, timedOut, failures);
+	}
+
+	private final class Task implements Runnable {
+		final Runnable body;
+		final Duration timeout;
+		final CountDownLatch remaining;
+		final AtomicInteger state = new AtomicInteger(NEW);
+		volatile Thread thread;
+		Throwable failure;
+
+		Task(Runnable body, Duration timeout, CountDownLatch remaining) {
+			this.body = body;
+			this.timeout = timeout;
+			this.remaining = remaining;
+		}
+
+		@Override
+		public void run() {
+			thread = Thread.currentThread();
+			if (!state.compareAndSet(NEW, RUNNING)) {
+				remaining.countDown();
+				return;
+			}
+			var alarm = watchdog.schedule(() -> stop(TIMED_OUT), timeout.toNanos(), TimeUnit.NANOSECONDS);
+			try {
+				body.run();
+			} catch (Throwable t) {
+				failure = t;
+			} finally {
+				alarm.cancel(false);
+				if (!state.compareAndSet(RUNNING, DONE)) {
+					// stopped: make sure the interrupt has landed, then clear it so a
+					// pooled thread does not carry it into the next task
+					while (state.get() == STOPPING)
+						Thread.onSpinWait();
+					Thread.interrupted();
+				}
+				remaining.countDown();
+			}
+		}
+
+		/** Skips the task if it has not started, or interrupts it if it is running. */
+		void stop(int reason) {
+			if (state.compareAndSet(NEW, reason))
+				return;
+			if (state.compareAndSet(RUNNING, STOPPING)) {
+				thread.interrupt();
+				state.set(reason);
+			}
+		}
+	}
+
+	/** Waits for running tasks to finish and stops the threads. */
+	@Override
+	public void close() {
+		executor.close();
+		watchdog.shutdownNow();
+	}
+}
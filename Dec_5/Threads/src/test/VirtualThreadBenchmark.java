@@ -0,0 +1,80 @@
+package test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a batch of blocking tasks (each sleeps, like a call to a slow
+ * service) through a {@link TaskRunner} on virtual threads and on a
+ * platform pool, and prints elapsed time, throughput, peak heap and peak
+ * platform thread count for each.
+ *
+ * <pre>
+ * java -p bin -m Threads/test.VirtualThreadBenchmark [tasks] [sleep ms] [pool size]
+ * </pre>
+ */
+public class VirtualThreadBenchmark {
+
+	public static void main(String[] args) throws InterruptedException {
+		int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+		long sleepMs = args.length > 1 ? Long.parseLong(args[1]) : 10;
+		int poolSize = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+		List<Runnable> batch = new ArrayList<>(tasks);
+		for (int i = 0; i < tasks; i++) {
+			batch.add(() -> {
+				try {
+					Thread.sleep(sleepMs);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+
+		// a short untimed round first, so class loading and JIT are not billed to the first mode
+		try (TaskRunner warmup = TaskRunner.virtual()) {
+			warmup.runAll(batch.subList(0, Math.min(tasks, 10_000)), Duration.ofMinutes(1));
+		}
+		try (TaskRunner runner = TaskRunner.virtual()) {
+			run("virtual threads", runner, batch);
+		}
+		try (TaskRunner runner = TaskRunner.platform(poolSize)) {
+			run("platform pool of " + poolSize, runner, batch);
+		}
+	}
+
+	private static void run(String name, TaskRunner runner, List<Runnable> batch) throws InterruptedException {
+		MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		System.gc();
+		long heapBefore = memory.getHeapMemoryUsage().getUsed();
+		threads.resetPeakThreadCount();
+
+		long[] peakHeap = { heapBefore };
+		Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+			while (!Thread.currentThread().isInterrupted()) {
+				peakHeap[0] = Math.max(peakHeap[0], memory.getHeapMemoryUsage().getUsed());
+				try {
+					Thread.sleep(5);
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+		});
+
+		long start = System.nanoTime();
+		TaskRunner.Results results = runner.runAll(batch, Duration.ofMinutes(1));
+		long elapsed = System.nanoTime() - start;
+		sampler.interrupt();
+		sampler.join();
+
+		System.out.println(name + ": " + results);
+		System.out.println("  " + elapsed / 1_000_000 + " ms, " + batch.size() * 1_000_000_000L / elapsed + " tasks/sec");
+		System.out.println("  peak heap growth " + (peakHeap[0] - heapBefore) / (1 << 20) + " MB, peak platform threads "
+				+ threads.getPeakThreadCount());
+	}
+}
@@ -3,12 +3,13 @@ package test;
 public class VrtualThread {
 
     public static void main(String[] args) throws InterruptedException {
-        Thread virtual = new Thread(() -> {
-            System.out.println("Thread name: " + Thread.currentThread().getName());
-        }, "virtual");
+        Thread virtual = Thread.ofVirtual().name("virtual").unstarted(() -> {
+            System.out.println("Thread name: " + Thread.currentThread().getName()
+                    + ", virtual: " + Thread.currentThread().isVirtual());
+        });
 
-        virtual.start();   
-        virtual.join(); 
-        System.out.println("Virtual-thread-like logic done");
+        virtual.start();
+        virtual.join();
+        System.out.println("Virtual thread done");
     }
 }
@@ -0,0 +1,16 @@
+package test;
+
+/**
+ * What an idle {@link RingBufferPool} worker does while its queue is empty.
+ *
+ * SPIN keeps the core busy for the lowest hand-off latency, YIELD lets
+ * other threads run between checks, and PARK sleeps after a short spin
+ * and yield phase, trading wake-up latency for an idle CPU.
+ */
+public enum WaitStrategy {
+	SPIN, YIELD, PARK;
+
+	static final int SPINS = 100;
+	static final int YIELDS = 100;
+	static final long PARK_NANOS = 100_000;
+}
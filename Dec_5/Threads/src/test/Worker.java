@@ -3,6 +3,11 @@ package test;
 public class Worker implements Runnable {
 
 int add(int a,int b)
+{
+	return a+b;
+}
+
+long add(long a,long b)
 {
 	return a+b;
 }
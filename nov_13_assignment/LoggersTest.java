@@ -31,7 +31,7 @@ public class LoggersTest {
         
            name.toLowerCase();
         }catch(Exception ex) {
-        	logger.error("error in LoggingTest " + ex.getMessage());
+        	logger.error("error in LoggingTest {}", ex.getMessage(), ex);
         }
     	logger.debug("leaving from method main");
     }
@@ -0,0 +1,87 @@
+package com.app.process;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.util.Unbox;
+
+/**
+ * Measures what a logging call costs the calling thread with the sync
+ * profile (log4j2.xml) and the async one (log4j2-async.xml).
+ *
+ * <pre>
+ * java com.app.process.LoggingThroughput [threads] [messagesPerThread]
+ * </pre>
+ *
+ * Every thread times each call with System.nanoTime into a pre-allocated
+ * array, so the harness adds no garbage of its own. "calls/sec" is what
+ * the callers saw; "drained/sec" also waits until the async thread has
+ * written everything. Console output is discarded during the runs and the
+ * file appender writes to logs/throughput.log instead of logs/app.log.
+ */
+public class LoggingThroughput {
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int messages = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        System.setProperty("app.log.file", "logs/throughput.log");
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (String profile : new String[] { "log4j2.xml", "log4j2-async.xml" }) {
+                run(profile, threads, messages / 4);
+                String result = run(profile, threads, messages);
+                out.println(result);
+            }
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    private static String run(String profile, int threads, int messages) throws InterruptedException {
+        LoggerContext ctx = new LoggerContext(profile, null, new File(profile).toURI());
+        ctx.start();
+        Logger logger = ctx.getLogger(LoggingThroughput.class.getName());
+
+        long[][] latencies = new long[threads][messages];
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            long[] lat = latencies[t];
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < messages; i++) {
+                    long start = System.nanoTime();
+                    logger.info("order {} processed in {} us", Unbox.box(i), Unbox.box(start & 1023));
+                    lat[i] = System.nanoTime() - start;
+                }
+            }, "logger-" + t);
+        }
+
+        long start = System.nanoTime();
+        for (Thread w : workers)
+            w.start();
+        for (Thread w : workers)
+            w.join();
+        long called = System.nanoTime() - start;
+        ctx.stop(1, TimeUnit.MINUTES);
+        long drained = System.nanoTime() - start;
+
+        long[] all = new long[threads * messages];
+        for (int t = 0; t < threads; t++)
+            System.arraycopy(latencies[t], 0, all, t * messages, messages);
+        Arrays.sort(all);
+        long total = all.length;
+        return String.format("%-18s threads: %d  calls/sec: %,d  drained/sec: %,d  p50: %,d ns  p99: %,d ns  p99.9: %,d ns  max: %,d ns",
+                profile, threads, total * 1_000_000_000L / called, total * 1_000_000_000L / drained,
+                percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999), all[all.length - 1]);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, (long) (p * sorted.length))];
+    }
+}
@@ -0,0 +1,49 @@
+package nov_13_assignment.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Writes a text file of a given size drawn from a skewed vocabulary.
+ *
+ * Word 0 is "india" and is the most frequent one. The other words are
+ * "w" followed by their index in base 36. Lines hold twelve lower-case
+ * words separated by single spaces, so every counting strategy (split on
+ * " ", byte delimiters) sees the same words.
+ */
+public final class SyntheticCorpus {
+
+	private SyntheticCorpus() {
+	}
+
+	public static Path write(Path file, long sizeBytes, int vocabulary, long seed) throws IOException {
+		String[] words = new String[vocabulary];
+		words[0] = "india";
+		for (int i = 1; i < vocabulary; i++)
+			words[i] = "w" + Integer.toString(i, 36);
+		SplittableRandom rnd = new SplittableRandom(seed);
+		long written = 0;
+		try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			while (written < sizeBytes) {
+				for (int i = 0; i < 12; i++) {
+					// cubing a uniform value skews picks towards small indexes, roughly like natural text
+					double u = rnd.nextDouble();
+					String w = words[(int) (u * u * u * vocabulary)];
+					if (i > 0) {
+						out.write(' ');
+						written++;
+					}
+					out.write(w);
+					written += w.length();
+				}
+				out.write('\n');
+				written++;
+			}
+		}
+		return file;
+	}
+}
@@ -0,0 +1,138 @@
+package nov_13_assignment.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import nov_13_assignment.ByteWordSpliterator;
+import nov_13_assignment.MappedWordCount;
+import nov_13_assignment.WordSlice;
+
+/**
+ * Counts "india" in a synthetic corpus with each strategy.
+ *
+ * The {@code megabytes} counter reports throughput in MB/s. Run through
+ * {@link WordCountBenchmarks} to get allocation rates from the GC profiler
+ * as well.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WordCountBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class Corpus {
+		@Param({ "64" })
+		public int sizeMb;
+
+		@Param({ "1000", "100000" })
+		public int vocabulary;
+
+		Path file;
+
+		@Setup(Level.Trial)
+		public void setUp() throws IOException {
+			file = SyntheticCorpus.write(Files.createTempFile("corpus", ".txt"), sizeMb * (1L << 20), vocabulary, 42);
+		}
+
+		@TearDown(Level.Trial)
+		public void tearDown() throws IOException {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	@State(Scope.Thread)
+	public static class Throughput {
+		public long megabytes;
+	}
+
+	static final byte[] TARGET = WordSlice.target("india");
+
+	@Benchmark
+	public long bufferedReaderLoop(Corpus corpus, Throughput t) throws IOException {
+		long c = 0;
+		try (BufferedReader br = Files.newBufferedReader(corpus.file, StandardCharsets.UTF_8)) {
+			String sent;
+			while ((sent = br.readLine()) != null) {
+				for (String word : sent.toLowerCase().split(" ")) {
+					if (word.equals("india"))
+						c++;
+				}
+			}
+		}
+		t.megabytes += corpus.sizeMb;
+		return c;
+	}
+
+	@Benchmark
+	public long filesLines(Corpus corpus, Throughput t) throws IOException {
+		long c;
+		try (Stream<String> lines = Files.lines(corpus.file)) {
+			c = lines.flatMap(line -> Arrays.stream(line.split(" ")))
+					.map(String::toLowerCase)
+					.filter(word -> word.equals("india"))
+					.count();
+		}
+		t.megabytes += corpus.sizeMb;
+		return c;
+	}
+
+	@Benchmark
+	public long parallelFilesLines(Corpus corpus, Throughput t) throws IOException {
+		long c;
+		try (Stream<String> lines = Files.lines(corpus.file)) {
+			c = lines.parallel()
+					.flatMap(line -> Arrays.stream(line.split(" ")))
+					.map(String::toLowerCase)
+					.filter(word -> word.equals("india"))
+					.count();
+		}
+		t.megabytes += corpus.sizeMb;
+		return c;
+	}
+
+	@Benchmark
+	public long byteSpliterator(Corpus corpus, Throughput t) throws IOException {
+		long c = ByteWordSpliterator.words(corpus.file).filter(w -> w.is(TARGET)).count();
+		t.megabytes += corpus.sizeMb;
+		return c;
+	}
+
+	@Benchmark
+	@Fork(value = 1, jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+	public long byteSpliteratorVector(Corpus corpus, Throughput t) throws IOException {
+		long c = ByteWordSpliterator.words(corpus.file, "vector").filter(w -> w.is(TARGET)).count();
+		t.megabytes += corpus.sizeMb;
+		return c;
+	}
+
+	@Benchmark
+	public long memoryMapped(Corpus corpus, Throughput t) throws IOException {
+		long c = MappedWordCount.count(corpus.file, "india");
+		t.megabytes += corpus.sizeMb;
+		return c;
+	}
+}
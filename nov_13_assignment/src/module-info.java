@@ -5,4 +5,6 @@
  * 
  */
 module nov_13_assignment {
+	requires jdk.httpserver;
+	requires static jdk.incubator.vector;
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package nov_13_assignment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Bounded-memory word statistics: a {@link CountMinSketch} for per-word
+ * frequencies and a {@link HyperLogLog} for the number of distinct words.
+ *
+ * The file is split like {@link CorpusWordCount} does it and every worker
+ * thread fills its own pair of sketches, which are merged at the end of
+ * the run and then dropped. Each run adds to the totals of the runs before
+ * it. Memory depends only on the error bounds and the number of threads, not
+ * on the size of the input.
+ */
+public class ApproximateWordCount {
+
+	static final int CHUNK = 16 << 20;
+
+	private final double epsilon;
+	private final double delta;
+	private final double distinctError;
+
+	private CountMinSketch frequencies;
+	private HyperLogLog distinct;
+
+	/**
+	 * @param epsilon       frequency overestimate, as a fraction of all words
+	 * @param delta         probability that a frequency misses the epsilon bound
+	 * @param distinctError relative standard error of the distinct-word estimate
+	 */
+	public ApproximateWordCount(double epsilon, double delta, double distinctError) {
+		this.epsilon = epsilon;
+		this.delta = delta;
+		this.distinctError = distinctError;
+		frequencies = new CountMinSketch(epsilon, delta);
+		distinct = new HyperLogLog(distinctError);
+	}
+
+	public ApproximateWordCount run(Path file, ForkJoinPool pool) throws IOException {
+		Map<Thread, Sketches> sketches = new ConcurrentHashMap<>();
+		List<ChunkTask> chunks = new ArrayList<>();
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+			for (MappedByteBuffer region : MappedWordCount.map(ch)) {
+				ChunkTask task = new ChunkTask(region, 0, region.limit(), sketches);
+				pool.execute(task);
+				chunks.add(task);
+			}
+		}
+		for (ChunkTask task : chunks)
+			task.join();
+		for (Sketches s : sketches.values()) {
+			frequencies.merge(s.frequencies);
+			distinct.merge(s.distinct);
+		}
+		return this;
+	}
+
+	public CountMinSketch frequencies() {
+		return frequencies;
+	}
+
+	public HyperLogLog distinct() {
+		return distinct;
+	}
+
+	private class Sketches {
+		final CountMinSketch frequencies = new CountMinSketch(epsilon, delta);
+		final HyperLogLog distinct = new HyperLogLog(distinctError);
+
+		void addAll(ByteBuffer buf, int from, int to) {
+			int i = from;
+			while (i < to) {
+				while (i < to && ByteWords.isDelimiter(buf.get(i)))
+					i++;
+				int start = i;
+				while (i < to && !ByteWords.isDelimiter(buf.get(i)))
+					i++;
+				if (i > start) {
+					long h = ByteWords.hash64(buf, start, i - start);
+					frequencies.add(h, 1);
+					distinct.add(h);
+				}
+			}
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private class ChunkTask extends RecursiveAction {
+		private final ByteBuffer buf;
+		private final int from;
+		private final int to;
+		private final Map<Thread, Sketches> sketches;
+
+		ChunkTask(ByteBuffer buf, int from, int to, Map<Thread, Sketches> sketches) {
+			this.buf = buf;
+			this.from = from;
+			this.to = to;
+			this.sketches = sketches;
+		}
+
+		@Override
+		protected void compute() {
+			int mid = to - from <= CHUNK ? to : ByteWords.nextDelimiter(buf, from + (to - from) / 2, to);
+			if (mid >= to) {
+				sketches.computeIfAbsent(Thread.currentThread(), t -> new Sketches()).addAll(buf, from, to);
+				return;
+			}
+			invokeAll(new ChunkTask(buf, from, mid, sketches), new ChunkTask(buf, mid, to, sketches));
+		}
+	}
+}
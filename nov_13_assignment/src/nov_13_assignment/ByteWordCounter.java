@@ -0,0 +1,212 @@
+package nov_13_assignment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table from words (lower-cased byte strings) to long
+ * counts.
+ *
+ * Every distinct word gets a dense id in insertion order. The word bytes
+ * live back to back in one byte array, and offsets, lengths, hashes and
+ * counts are parallel primitive arrays indexed by id. The slot table only
+ * holds {@code id + 1}, with 0 meaning empty, and is probed linearly. Adding
+ * an existing word therefore allocates nothing.
+ *
+ * A table built with {@code preserveCase} keeps words exactly as given
+ * instead, so "Foo" and "foo" are different entries; it is meant for names
+ * such as logger names rather than prose.
+ */
+public class ByteWordCounter {
+
+	private final boolean preserveCase;
+	private int[] slots;
+	private int mask;
+
+	private byte[] bytes = new byte[1 << 12];
+	private int used;
+
+	private int[] offsets;
+	private int[] lengths;
+	private int[] hashes;
+	private long[] counts;
+	private int size;
+
+	public ByteWordCounter() {
+		this(1 << 10);
+	}
+
+	public ByteWordCounter(int expectedWords) {
+		this(expectedWords, false);
+	}
+
+	public ByteWordCounter(int expectedWords, boolean preserveCase) {
+		this.preserveCase = preserveCase;
+		int capacity = Integer.highestOneBit(Math.max(16, expectedWords * 2 - 1)) << 1;
+		slots = new int[capacity];
+		mask = capacity - 1;
+		offsets = new int[capacity / 2];
+		lengths = new int[capacity / 2];
+		hashes = new int[capacity / 2];
+		counts = new long[capacity / 2];
+	}
+
+	/** Counts every word of a file. */
+	public static ByteWordCounter of(Path file) throws IOException {
+		ByteWordCounter counter = new ByteWordCounter();
+		ByteWordSpliterator.words(file).forEach(counter::add);
+		return counter;
+	}
+
+	public int add(WordSlice word) {
+		return add(word.buf, word.start, word.length, 1);
+	}
+
+	/** Counts every word in buf[from, to). */
+	public void addAll(ByteBuffer buf, int from, int to) {
+		int i = from;
+		while (i < to) {
+			while (i < to && ByteWords.isDelimiter(buf.get(i)))
+				i++;
+			int start = i;
+			while (i < to && !ByteWords.isDelimiter(buf.get(i)))
+				i++;
+			if (i > start)
+				add(buf, start, i - start, 1);
+		}
+	}
+
+	/** Adds {@code delta} to the word buf[start, start + length) and returns its id. */
+	public int add(ByteBuffer buf, int start, int length, long delta) {
+		int h = ByteWords.hash(buf, start, length);
+		int slot = h & mask;
+		for (int s; (s = slots[slot]) != 0; slot = (slot + 1) & mask) {
+			int id = s - 1;
+			if (hashes[id] == h && lengths[id] == length && equalsAt(id, buf, start)) {
+				counts[id] += delta;
+				return id;
+			}
+		}
+		int id = insert(slot, h, length, delta);
+		for (int i = 0; i < length; i++)
+			bytes[offsets[id] + i] = stored(buf.get(start + i));
+		return id;
+	}
+
+	/** Adds {@code delta} to a word given as stored bytes (lower-cased unless case is preserved) and returns its id. */
+	public int add(byte[] word, int start, int length, long delta) {
+		int h = hash(word, start, length);
+		int slot = h & mask;
+		for (int s; (s = slots[slot]) != 0; slot = (slot + 1) & mask) {
+			int id = s - 1;
+			if (hashes[id] == h && lengths[id] == length
+					&& Arrays.equals(bytes, offsets[id], offsets[id] + length, word, start, start + length)) {
+				counts[id] += delta;
+				return id;
+			}
+		}
+		int id = insert(slot, h, length, delta);
+		System.arraycopy(word, start, bytes, offsets[id], length);
+		return id;
+	}
+
+	/** Id of the word, or -1 if it has never been added. */
+	public int find(String word) {
+		byte[] key = preserveCase ? word.getBytes(StandardCharsets.UTF_8) : ByteWords.lower(word);
+		int h = hash(key, 0, key.length);
+		for (int slot = h & mask, s; (s = slots[slot]) != 0; slot = (slot + 1) & mask) {
+			int id = s - 1;
+			if (hashes[id] == h && lengths[id] == key.length
+					&& Arrays.equals(bytes, offsets[id], offsets[id] + key.length, key, 0, key.length))
+				return id;
+		}
+		return -1;
+	}
+
+	/** Adds all counts of {@code other} into this table. */
+	public void merge(ByteWordCounter other) {
+		for (int id = 0; id < other.size; id++)
+			add(other.bytes, other.offsets[id], other.lengths[id], other.counts[id]);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public long count(int id) {
+		return counts[id];
+	}
+
+	public String word(int id) {
+		return new String(bytes, offsets[id], lengths[id], StandardCharsets.UTF_8);
+	}
+
+	/** Copy of the stored bytes of a word. */
+	public byte[] wordBytes(int id) {
+		return Arrays.copyOfRange(bytes, offsets[id], offsets[id] + lengths[id]);
+	}
+
+	/** Ids of the {@code k} most frequent words, most frequent first. */
+	public int[] top(int k) {
+		TopK top = new TopK(k);
+		for (int id = 0; id < size; id++)
+			top.offer(id, counts[id]);
+		long[] ids = top.keys();
+		int[] result = new int[ids.length];
+		for (int i = 0; i < ids.length; i++)
+			result[i] = (int) ids[i];
+		return result;
+	}
+
+	private boolean equalsAt(int id, ByteBuffer buf, int start) {
+		int off = offsets[id];
+		for (int i = 0; i < lengths[id]; i++) {
+			if (bytes[off + i] != stored(buf.get(start + i)))
+				return false;
+		}
+		return true;
+	}
+
+	private byte stored(byte b) {
+		return preserveCase ? b : ByteWords.fold(b);
+	}
+
+	/** The hash is always of the folded bytes, so case variants of a name only differ in the comparison. */
+	private int hash(byte[] word, int start, int length) {
+		return preserveCase ? ByteWords.hash(ByteBuffer.wrap(word), start, length) : ByteWords.hash(word, start, length);
+	}
+
+	private int insert(int slot, int h, int length, long delta) {
+		if (used + length > bytes.length)
+			bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, used + length));
+		int id = size++;
+		offsets[id] = used;
+		lengths[id] = length;
+		hashes[id] = h;
+		counts[id] = delta;
+		used += length;
+		slots[slot] = id + 1;
+		if (size * 2 >= slots.length)
+			grow();
+		return id;
+	}
+
+	private void grow() {
+		int capacity = slots.length * 2;
+		slots = new int[capacity];
+		mask = capacity - 1;
+		for (int id = 0; id < size; id++) {
+			int slot = hashes[id] & mask;
+			while (slots[slot] != 0)
+				slot = (slot + 1) & mask;
+			slots[slot] = id + 1;
+		}
+		offsets = Arrays.copyOf(offsets, capacity / 2);
+		lengths = Arrays.copyOf(lengths, capacity / 2);
+		hashes = Arrays.copyOf(hashes, capacity / 2);
+		counts = Arrays.copyOf(counts, capacity / 2);
+	}
+}
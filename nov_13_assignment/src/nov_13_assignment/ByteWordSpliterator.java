@@ -0,0 +1,105 @@
+package nov_13_assignment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Splits a byte buffer into words without creating a String per word.
+ *
+ * Every word is handed out through the same {@link WordSlice}, so the
+ * stream stays allocation-free as long as callers only compare or count
+ * slices. {@link #trySplit()} cuts on a delimiter, which lets parallel
+ * streams divide the buffer safely.
+ */
+public class ByteWordSpliterator implements Spliterator<WordSlice> {
+
+	static final int MIN_SPLIT = 1 << 16;
+
+	private final ByteBuffer buf;
+	private final DelimiterScanner scanner;
+	private final WordSlice slice = new WordSlice();
+	private int pos;
+	private final int end;
+
+	public ByteWordSpliterator(ByteBuffer buf) {
+		this(buf, DelimiterScanner.create());
+	}
+
+	public ByteWordSpliterator(ByteBuffer buf, DelimiterScanner scanner) {
+		this(buf, buf.position(), buf.limit(), scanner);
+	}
+
+	ByteWordSpliterator(ByteBuffer buf, int pos, int end, DelimiterScanner scanner) {
+		this.buf = buf;
+		this.scanner = scanner;
+		this.pos = pos;
+		this.end = end;
+	}
+
+	/**
+	 * Words of a whole file, read through read-only memory mappings, using
+	 * the boundary scanner chosen by {@link DelimiterScanner#create()}.
+	 */
+	public static Stream<WordSlice> words(Path file) throws IOException {
+		return words(file, System.getProperty("wordcount.scanner", "auto"));
+	}
+
+	/** Words of a whole file using the given scanner backend. */
+	public static Stream<WordSlice> words(Path file, String backend) throws IOException {
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+			return MappedWordCount.map(ch).stream()
+					.flatMap(region -> StreamSupport.stream(new ByteWordSpliterator(region, DelimiterScanner.create(backend)), false));
+		}
+	}
+
+	public static Stream<WordSlice> words(ByteBuffer buf) {
+		return StreamSupport.stream(new ByteWordSpliterator(buf), false);
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super WordSlice> action) {
+		pos = scanner.skipDelimiters(buf, pos, end);
+		if (pos >= end)
+			return false;
+		int start = pos;
+		pos = scanner.nextDelimiter(buf, pos, end);
+		slice.set(buf, start, pos - start);
+		action.accept(slice);
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super WordSlice> action) {
+		while (tryAdvance(action)) {
+		}
+	}
+
+	@Override
+	public Spliterator<WordSlice> trySplit() {
+		if (end - pos < MIN_SPLIT)
+			return null;
+		int mid = ByteWords.nextDelimiter(buf, pos + (end - pos) / 2, end);
+		if (mid >= end)
+			return null;
+		ByteWordSpliterator prefix = new ByteWordSpliterator(buf, pos, mid, DelimiterScanner.create(scanner.backend()));
+		pos = mid;
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize() {
+		return end - pos;
+	}
+
+	@Override
+	public int characteristics() {
+		return ORDERED | NONNULL;
+	}
+}
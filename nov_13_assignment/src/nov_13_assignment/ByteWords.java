@@ -0,0 +1,123 @@
+package nov_13_assignment;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Byte-level word helpers shared by the fast word-count modes.
+ *
+ * A word is a maximal run of bytes that are neither ASCII whitespace nor
+ * ASCII punctuation. Bytes above 0x7F (UTF-8 multi-byte sequences) are part
+ * of words, and case folding only applies to ASCII letters.
+ */
+final class ByteWords {
+
+	private static final boolean[] DELIMITER = new boolean[256];
+
+	static {
+		for (int b = 0; b < 128; b++) {
+			boolean letterOrDigit = (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9');
+			DELIMITER[b] = !letterOrDigit;
+		}
+	}
+
+	private ByteWords() {
+	}
+
+	static boolean isDelimiter(byte b) {
+		return DELIMITER[b & 0xFF];
+	}
+
+	static byte fold(byte b) {
+		return (b >= 'A' && b <= 'Z') ? (byte) (b + ('a' - 'A')) : b;
+	}
+
+	/** Lower-cased UTF-8 bytes of {@code word}, ready to compare with {@link #matches}. */
+	static byte[] lower(String word) {
+		byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+		for (int i = 0; i < bytes.length; i++)
+			bytes[i] = fold(bytes[i]);
+		return bytes;
+	}
+
+	/** First delimiter position in [from, to), or {@code to} if there is none. */
+	static int nextDelimiter(ByteBuffer buf, int from, int to) {
+		int i = from;
+		while (i < to && !isDelimiter(buf.get(i)))
+			i++;
+		return i;
+	}
+
+	/** Compares buf[start, start + target.length) against an already lower-cased target. */
+	static boolean matches(ByteBuffer buf, int start, byte[] target) {
+		for (int k = 0; k < target.length; k++) {
+			if (fold(buf.get(start + k)) != target[k])
+				return false;
+		}
+		return true;
+	}
+
+	/** FNV-1a hash of the lower-cased bytes buf[start, start + length). */
+	static int hash(ByteBuffer buf, int start, int length) {
+		int h = 0x811C9DC5;
+		for (int i = start; i < start + length; i++)
+			h = (h ^ fold(buf.get(i))) * 0x01000193;
+		return mix(h);
+	}
+
+	/** Same hash as {@link #hash(ByteBuffer, int, int)} for bytes that are already lower-cased. */
+	static int hash(byte[] bytes, int start, int length) {
+		int h = 0x811C9DC5;
+		for (int i = start; i < start + length; i++)
+			h = (h ^ bytes[i]) * 0x01000193;
+		return mix(h);
+	}
+
+	/** 64-bit FNV-1a of the lower-cased bytes, finished with the MurmurHash3 mixer. */
+	static long hash64(ByteBuffer buf, int start, int length) {
+		long h = 0xCBF29CE484222325L;
+		for (int i = start; i < start + length; i++)
+			h = (h ^ fold(buf.get(i))) * 0x100000001B3L;
+		return mix64(h);
+	}
+
+	/** Same hash as {@link #hash64(ByteBuffer, int, int)} for bytes that are already lower-cased. */
+	static long hash64(byte[] bytes, int start, int length) {
+		long h = 0xCBF29CE484222325L;
+		for (int i = start; i < start + length; i++)
+			h = (h ^ bytes[i]) * 0x100000001B3L;
+		return mix64(h);
+	}
+
+	private static long mix64(long h) {
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	private static int mix(int h) {
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		return h;
+	}
+
+	/** Counts whole-word, case-insensitive occurrences of {@code target} in buf[from, to). */
+	static long count(ByteBuffer buf, int from, int to, byte[] target) {
+		long c = 0;
+		int i = from;
+		while (i < to) {
+			while (i < to && isDelimiter(buf.get(i)))
+				i++;
+			int start = i;
+			while (i < to && !isDelimiter(buf.get(i)))
+				i++;
+			if (i > start && i - start == target.length && matches(buf, start, target))
+				c++;
+		}
+		return c;
+	}
+}
@@ -0,0 +1,160 @@
+package nov_13_assignment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Counts every word of every file under a directory.
+ *
+ * Each file becomes a task on a work-stealing ForkJoinPool. Plain files are
+ * memory-mapped and large ones are split further on delimiter boundaries,
+ * so one big file does not keep a single core busy. {@code .gz} files are
+ * streamed through a fixed buffer because they cannot be split. Every
+ * worker thread counts into its own {@link ByteWordCounter}, and the
+ * per-thread tables are merged once at the end. The tables belong to the
+ * run, so nothing is left behind on the pool's threads.
+ */
+public class CorpusWordCount {
+
+	static final int CHUNK = 16 << 20;
+	static final int GZIP_BUFFER = 1 << 20;
+
+	private final AtomicInteger files = new AtomicInteger();
+
+	public static ByteWordCounter count(Path dir) throws IOException {
+		return new CorpusWordCount().run(dir, ForkJoinPool.commonPool());
+	}
+
+	public ByteWordCounter run(Path dir, ForkJoinPool pool) throws IOException {
+		List<Path> paths;
+		try (Stream<Path> walk = Files.walk(dir)) {
+			paths = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+		}
+		files.set(0);
+		Map<Thread, ByteWordCounter> counters = new ConcurrentHashMap<>();
+		List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		for (Path p : paths)
+			tasks.add(pool.submit(new FileTask(p, counters)));
+		try {
+			for (ForkJoinTask<?> t : tasks)
+				t.join();
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		ByteWordCounter total = new ByteWordCounter(1 << 16);
+		for (ByteWordCounter c : counters.values())
+			total.merge(c);
+		return total;
+	}
+
+	/** Files counted by the last {@link #run}. */
+	public int files() {
+		return files.get();
+	}
+
+	/** The calling worker's table for this run, created on first use. */
+	private static ByteWordCounter counter(Map<Thread, ByteWordCounter> counters) {
+		return counters.computeIfAbsent(Thread.currentThread(), t -> new ByteWordCounter(1 << 16));
+	}
+
+	@SuppressWarnings("serial")
+	private class FileTask extends RecursiveAction {
+		private final Path file;
+		private final Map<Thread, ByteWordCounter> counters;
+
+		FileTask(Path file, Map<Thread, ByteWordCounter> counters) {
+			this.file = file;
+			this.counters = counters;
+		}
+
+		@Override
+		protected void compute() {
+			try {
+				if (file.getFileName().toString().endsWith(".gz"))
+					countGzip();
+				else
+					countMapped();
+				files.incrementAndGet();
+			} catch (IOException e) {
+				throw new UncheckedIOException(file + ": " + e.getMessage(), e);
+			}
+		}
+
+		private void countMapped() throws IOException {
+			List<ChunkTask> chunks = new ArrayList<>();
+			try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+				for (MappedByteBuffer region : MappedWordCount.map(ch))
+					chunks.add(new ChunkTask(region, 0, region.limit(), counters));
+			}
+			invokeAll(chunks);
+		}
+
+		private void countGzip() throws IOException {
+			ByteWordCounter counter = counter(counters);
+			byte[] bytes = new byte[GZIP_BUFFER];
+			ByteBuffer buf = ByteBuffer.wrap(bytes);
+			try (InputStream in = new GZIPInputStream(Files.newInputStream(file), 1 << 16)) {
+				int filled = 0;
+				int n;
+				while ((n = in.read(bytes, filled, bytes.length - filled)) > 0) {
+					filled += n;
+					int end = filled;
+					while (end > 0 && !ByteWords.isDelimiter(bytes[end - 1]))
+						end--;
+					if (end == 0) {
+						if (filled < bytes.length)
+							continue;
+						end = filled;
+					}
+					counter.addAll(buf, 0, end);
+					System.arraycopy(bytes, end, bytes, 0, filled - end);
+					filled -= end;
+				}
+				counter.addAll(buf, 0, filled);
+			}
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private static class ChunkTask extends RecursiveAction {
+		private final ByteBuffer buf;
+		private final int from;
+		private final int to;
+		private final Map<Thread, ByteWordCounter> counters;
+
+		ChunkTask(ByteBuffer buf, int from, int to, Map<Thread, ByteWordCounter> counters) {
+			this.buf = buf;
+			this.from = from;
+			this.to = to;
+			this.counters = counters;
+		}
+
+		@Override
+		protected void compute() {
+			int mid = to - from <= CHUNK ? to : ByteWords.nextDelimiter(buf, from + (to - from) / 2, to);
+			if (mid >= to) {
+				counter(counters).addAll(buf, from, to);
+				return;
+			}
+			invokeAll(new ChunkTask(buf, from, mid, counters), new ChunkTask(buf, mid, to, counters));
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package nov_13_assignment;
+
+/**
+ * Count-Min Sketch over 64-bit word hashes.
+ *
+ * With probability at least {@code 1 - delta}, an estimate exceeds the
+ * true count by at most {@code epsilon} times the total number of words
+ * added, and it is never below the true count. Memory is
+ * {@code ceil(e / epsilon) * ceil(ln(1 / delta))} longs no matter how many
+ * words are added. Row indexes come from double hashing of one 64-bit
+ * hash, so each add costs a single pass over the word.
+ */
+public class CountMinSketch {
+
+	private final int width;
+	private final int depth;
+	private final long[] table;
+	private long total;
+
+	public CountMinSketch(double epsilon, double delta) {
+		if (epsilon <= 0 || epsilon >= 1 || delta <= 0 || delta >= 1)
+			throw new IllegalArgumentException("epsilon and delta must be in (0, 1)");
+		width = (int) Math.ceil(Math.E / epsilon);
+		depth = (int) Math.ceil(Math.log(1 / delta));
+		table = new long[width * depth];
+	}
+
+	public void add(long hash, long count) {
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int row = 0; row < depth; row++) {
+			int col = ((h1 + row * h2) & Integer.MAX_VALUE) % width;
+			table[row * width + col] += count;
+		}
+		total += count;
+	}
+
+	public long estimate(long hash) {
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		long min = Long.MAX_VALUE;
+		for (int row = 0; row < depth; row++) {
+			int col = ((h1 + row * h2) & Integer.MAX_VALUE) % width;
+			min = Math.min(min, table[row * width + col]);
+		}
+		return min;
+	}
+
+	public long estimate(String word) {
+		byte[] key = ByteWords.lower(word);
+		return estimate(ByteWords.hash64(key, 0, key.length));
+	}
+
+	/** Adds another sketch built with the same epsilon and delta. */
+	public void merge(CountMinSketch other) {
+		if (other.width != width || other.depth != depth)
+			throw new IllegalArgumentException("sketches have different dimensions");
+		for (int i = 0; i < table.length; i++)
+			table[i] += other.table[i];
+		total += other.total;
+	}
+
+	public long total() {
+		return total;
+	}
+
+	public long memoryBytes() {
+		return table.length * 8L;
+	}
+}
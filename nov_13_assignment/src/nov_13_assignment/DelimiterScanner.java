@@ -0,0 +1,51 @@
+package nov_13_assignment;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Finds word boundaries for {@link ByteWordSpliterator}.
+ *
+ * Two backends exist: a scalar byte loop and a SIMD one built on the
+ * incubating Vector API. Pick one with {@code -Dwordcount.scanner=scalar},
+ * {@code vector} or {@code auto} (the default). {@code auto} uses the
+ * vector backend when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}, and falls back to the scalar
+ * backend otherwise. Instances may cache state and must not be shared
+ * between threads.
+ */
+public interface DelimiterScanner {
+
+	/** First position in [from, to) holding a word byte, or {@code to}. */
+	int skipDelimiters(ByteBuffer buf, int from, int to);
+
+	/** First position in [from, to) holding a delimiter, or {@code to}. */
+	int nextDelimiter(ByteBuffer buf, int from, int to);
+
+	/** "scalar" or "vector". */
+	String backend();
+
+	static DelimiterScanner create() {
+		return create(System.getProperty("wordcount.scanner", "auto"));
+	}
+
+	static DelimiterScanner create(String backend) {
+		switch (backend) {
+		case "scalar":
+			return new ScalarDelimiterScanner();
+		case "vector":
+		case "auto":
+			if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+				// loaded reflectively so the scalar path never links against the incubator module
+				try {
+					return (DelimiterScanner) Class.forName("nov_13_assignment.VectorDelimiterScanner")
+							.getDeclaredConstructor().newInstance();
+				} catch (ReflectiveOperationException | LinkageError e) {
+					// fall through to the scalar backend
+				}
+			}
+			return new ScalarDelimiterScanner();
+		default:
+			throw new IllegalArgumentException("unknown scanner backend: " + backend);
+		}
+	}
+}
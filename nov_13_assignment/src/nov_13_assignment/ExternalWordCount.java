@@ -0,0 +1,324 @@
+package nov_13_assignment;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Full-vocabulary word count for inputs whose vocabulary does not fit in
+ * the heap.
+ *
+ * Counts are kept in a fixed off-heap arena (a direct ByteBuffer): an
+ * open-addressing slot table of entry offsets followed by the entries
+ * themselves ({@code long count, int hash, int length, bytes}). When the
+ * arena is full, its entries are sorted by word in place and written to a
+ * run file, and the arena starts over. At the end all runs are merged
+ * with a k-way merge that adds up the counts of equal words, in several
+ * passes if there are more runs than {@link #FAN_IN}. The heap only holds
+ * one current record per open run.
+ */
+public class ExternalWordCount implements Closeable {
+
+	static final int FAN_IN = 64;
+	/** Smallest arena accepted; a direct ByteBuffer caps the largest at Integer.MAX_VALUE bytes. */
+	static final long MIN_ARENA = 1 << 12;
+	private static final int HEADER = 16;
+
+	private final ByteBuffer arena;
+	private final int slots;
+	private final int maxEntries;
+	private final Path workDir;
+	private final List<Path> runs = new ArrayList<>();
+
+	private int entries;
+	private int top;
+
+	public ExternalWordCount(long arenaBytes, Path workDir) throws IOException {
+		if (arenaBytes < MIN_ARENA || arenaBytes > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("arena must be " + MIN_ARENA + " to " + Integer.MAX_VALUE + " bytes");
+		arena = ByteBuffer.allocateDirect((int) arenaBytes);
+		slots = Integer.highestOneBit((int) arenaBytes / 32);
+		maxEntries = slots / 4 * 3;
+		top = slots * 4;
+		this.workDir = Files.createTempDirectory(workDir, "wordcount-runs");
+	}
+
+	public void add(Path file) throws IOException {
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+			for (MappedByteBuffer region : MappedWordCount.map(ch)) {
+				int end = region.limit();
+				int i = 0;
+				while (i < end) {
+					while (i < end && ByteWords.isDelimiter(region.get(i)))
+						i++;
+					int start = i;
+					while (i < end && !ByteWords.isDelimiter(region.get(i)))
+						i++;
+					if (i > start)
+						add(region, start, i - start);
+				}
+			}
+		}
+	}
+
+	private void add(ByteBuffer buf, int start, int length) throws IOException {
+		int h = ByteWords.hash(buf, start, length);
+		int slot = h & (slots - 1);
+		for (int e; (e = arena.getInt(slot * 4)) != 0; slot = (slot + 1) & (slots - 1)) {
+			if (arena.getInt(e + 8) == h && arena.getInt(e + 12) == length && equalsAt(e, buf, start, length)) {
+				arena.putLong(e, arena.getLong(e) + 1);
+				return;
+			}
+		}
+		if (entries == maxEntries || top + HEADER + length > arena.capacity()) {
+			if (entries == 0)
+				throw new IOException("arena too small for a word of " + length + " bytes");
+			spill();
+			add(buf, start, length);
+			return;
+		}
+		int e = top;
+		arena.putLong(e, 1);
+		arena.putInt(e + 8, h);
+		arena.putInt(e + 12, length);
+		for (int k = 0; k < length; k++)
+			arena.put(e + HEADER + k, ByteWords.fold(buf.get(start + k)));
+		arena.putInt(slot * 4, e);
+		top += HEADER + length;
+		entries++;
+	}
+
+	private boolean equalsAt(int e, ByteBuffer buf, int start, int length) {
+		for (int k = 0; k < length; k++) {
+			if (arena.get(e + HEADER + k) != ByteWords.fold(buf.get(start + k)))
+				return false;
+		}
+		return true;
+	}
+
+	/** Sorts the arena entries by word and writes them as a new run. */
+	private void spill() throws IOException {
+		int n = 0;
+		for (int s = 0; s < slots; s++) {
+			int e = arena.getInt(s * 4);
+			if (e != 0)
+				arena.putInt(n++ * 4, e);
+		}
+		sort(0, n - 1);
+		Path run = workDir.resolve("run-" + runs.size());
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), 1 << 16))) {
+			for (int s = 0; s < n; s++) {
+				int e = arena.getInt(s * 4);
+				int length = arena.getInt(e + 12);
+				out.writeInt(length);
+				for (int k = 0; k < length; k++)
+					out.writeByte(arena.get(e + HEADER + k));
+				out.writeLong(arena.getLong(e));
+			}
+		}
+		runs.add(run);
+		for (int s = 0; s < slots; s++)
+			arena.putInt(s * 4, 0);
+		entries = 0;
+		top = slots * 4;
+	}
+
+	/** Quicksort of slot positions [lo, hi] by the words they point to, recursing into the smaller side. */
+	private void sort(int lo, int hi) {
+		while (hi - lo > 16) {
+			int mid = (lo + hi) >>> 1;
+			if (compare(mid, lo) < 0)
+				swap(mid, lo);
+			if (compare(hi, lo) < 0)
+				swap(hi, lo);
+			if (compare(hi, mid) < 0)
+				swap(hi, mid);
+			int pivot = arena.getInt(mid * 4);
+			int i = lo, j = hi;
+			while (i <= j) {
+				while (compareEntries(arena.getInt(i * 4), pivot) < 0)
+					i++;
+				while (compareEntries(arena.getInt(j * 4), pivot) > 0)
+					j--;
+				if (i <= j)
+					swap(i++, j--);
+			}
+			if (j - lo < hi - i) {
+				sort(lo, j);
+				lo = i;
+			} else {
+				sort(i, hi);
+				hi = j;
+			}
+		}
+		for (int i = lo + 1; i <= hi; i++) {
+			for (int j = i; j > lo && compare(j, j - 1) < 0; j--)
+				swap(j, j - 1);
+		}
+	}
+
+	private int compare(int s1, int s2) {
+		return compareEntries(arena.getInt(s1 * 4), arena.getInt(s2 * 4));
+	}
+
+	private int compareEntries(int e1, int e2) {
+		int l1 = arena.getInt(e1 + 12);
+		int l2 = arena.getInt(e2 + 12);
+		int n = Math.min(l1, l2);
+		for (int k = 0; k < n; k++) {
+			int c = Integer.compare(arena.get(e1 + HEADER + k) & 0xFF, arena.get(e2 + HEADER + k) & 0xFF);
+			if (c != 0)
+				return c;
+		}
+		return Integer.compare(l1, l2);
+	}
+
+	private void swap(int s1, int s2) {
+		int t = arena.getInt(s1 * 4);
+		arena.putInt(s1 * 4, arena.getInt(s2 * 4));
+		arena.putInt(s2 * 4, t);
+	}
+
+	/**
+	 * Merges everything counted so far into {@code output} as "word count"
+	 * lines sorted by word, and returns the {@code k} most frequent words
+	 * as "word count" strings, most frequent first.
+	 */
+	public List<String> finish(Path output, int k) throws IOException {
+		if (entries > 0)
+			spill();
+		List<Path> pending = new ArrayList<>(runs);
+		while (pending.size() > FAN_IN) {
+			Path merged = workDir.resolve("run-" + runs.size());
+			runs.add(merged);
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(merged), 1 << 16))) {
+				merge(pending.subList(0, FAN_IN), (word, count) -> {
+					out.writeInt(word.length);
+					out.write(word);
+					out.writeLong(count);
+				});
+			}
+			pending = new ArrayList<>(pending.subList(FAN_IN, pending.size()));
+			pending.add(merged);
+		}
+		PriorityQueue<Counted> best = new PriorityQueue<>(Math.max(1, k), (a, b) -> Long.compare(a.count(), b.count()));
+		try (BufferedWriter out = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+			merge(pending, (word, count) -> {
+				String w = new String(word, StandardCharsets.UTF_8);
+				out.write(w);
+				out.write(' ');
+				out.write(Long.toString(count));
+				out.newLine();
+				if (best.size() < k) {
+					best.add(new Counted(w, count));
+				} else if (k > 0 && count > best.peek().count()) {
+					best.poll();
+					best.add(new Counted(w, count));
+				}
+			});
+		}
+		List<String> result = new ArrayList<>();
+		while (!best.isEmpty()) {
+			Counted c = best.poll();
+			result.add(0, c.word() + " " + c.count());
+		}
+		return result;
+	}
+
+	private record Counted(String word, long count) {
+	}
+
+	private interface Sink {
+		void accept(byte[] word, long count) throws IOException;
+	}
+
+	private static void merge(List<Path> inputs, Sink sink) throws IOException {
+		PriorityQueue<RunReader> heap = new PriorityQueue<>((a, b) -> Arrays.compareUnsigned(a.word, b.word));
+		try {
+			for (Path p : inputs) {
+				RunReader r = new RunReader(p);
+				if (r.next())
+					heap.add(r);
+				else
+					r.close();
+			}
+			while (!heap.isEmpty()) {
+				RunReader r = heap.poll();
+				byte[] word = r.word;
+				long count = r.count;
+				while (!heap.isEmpty() && Arrays.equals(heap.peek().word, word)) {
+					RunReader same = heap.poll();
+					count += same.count;
+					if (same.next())
+						heap.add(same);
+					else
+						same.close();
+				}
+				sink.accept(word, count);
+				if (r.next())
+					heap.add(r);
+				else
+					r.close();
+			}
+		} finally {
+			for (RunReader r : heap)
+				r.close();
+		}
+	}
+
+	private static class RunReader implements Closeable {
+		private final DataInputStream in;
+		byte[] word;
+		long count;
+
+		RunReader(Path run) throws IOException {
+			in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), 1 << 16));
+		}
+
+		boolean next() throws IOException {
+			int length;
+			try {
+				length = in.readInt();
+			} catch (EOFException e) {
+				return false;
+			}
+			word = new byte[length];
+			in.readFully(word);
+			count = in.readLong();
+			return true;
+		}
+
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+	}
+
+	public int runs() {
+		return runs.size();
+	}
+
+	/** Deletes the run files. */
+	@Override
+	public void close() throws IOException {
+		for (Path run : runs)
+			Files.deleteIfExists(run);
+		Files.deleteIfExists(workDir);
+	}
+}
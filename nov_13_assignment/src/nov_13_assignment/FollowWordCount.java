@@ -0,0 +1,181 @@
+package nov_13_assignment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a running word count for a file that is still being appended to,
+ * such as logs/app.log.
+ *
+ * Only bytes after the saved offset are read. A trailing partial word is
+ * left for the next round, so the offset always stops on a delimiter. The
+ * offset and totals are written to a checkpoint file after every round, so
+ * a restart carries on where the previous run stopped. The checkpoint also
+ * records the word and the file's identity (its file key, the inode on
+ * Unix), and is ignored when either differs. If the file is replaced
+ * (rotated) or becomes shorter than the offset (truncated), counting
+ * starts again from zero.
+ */
+public class FollowWordCount {
+
+	static final int BUFFER_SIZE = 1 << 20;
+
+	private final Path file;
+	private final String word;
+	private final byte[] target;
+	private final Path checkpoint;
+	private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+	private String fileKey = "";
+	private long offset;
+	private long matches;
+	private long words;
+
+	public FollowWordCount(Path file, String word, Path checkpoint) throws IOException {
+		this.file = file;
+		this.target = ByteWords.lower(word);
+		this.word = new String(target, StandardCharsets.ISO_8859_1);
+		this.checkpoint = checkpoint;
+		if (Files.exists(checkpoint)) {
+			Properties p = new Properties();
+			try (InputStream in = Files.newInputStream(checkpoint)) {
+				p.load(in);
+			}
+			String savedKey = p.getProperty("file.key", "");
+			if (this.word.equals(p.getProperty("word")) && (savedKey.isEmpty() || savedKey.equals(fileKey()))) {
+				fileKey = savedKey;
+				offset = Long.parseLong(p.getProperty("offset", "0"));
+				matches = Long.parseLong(p.getProperty("matches", "0"));
+				words = Long.parseLong(p.getProperty("words", "0"));
+			}
+		}
+	}
+
+	public long offset() {
+		return offset;
+	}
+
+	public long matches() {
+		return matches;
+	}
+
+	public long words() {
+		return words;
+	}
+
+	/** Counts whatever was appended since the last call. Returns true if the offset moved. */
+	public boolean poll() throws IOException {
+		if (!Files.exists(file))
+			return false;
+		long before = offset;
+		boolean restarted = false;
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+			String key = fileKey();
+			long size = ch.size();
+			if (size < offset || !key.equals(fileKey) && !fileKey.isEmpty()) {
+				offset = 0;
+				matches = 0;
+				words = 0;
+				restarted = true;
+			}
+			fileKey = key;
+			while (offset < size) {
+				buf.clear();
+				int n = ch.read(buf, offset);
+				if (n <= 0)
+					break;
+				int end = n;
+				while (end > 0 && !ByteWords.isDelimiter(buf.get(end - 1)))
+					end--;
+				if (end == 0) {
+					if (n < buf.capacity())
+						break;
+					end = n;
+				}
+				scan(end);
+				offset += end;
+			}
+		}
+		if (offset != before || restarted)
+			save();
+		return offset != before;
+	}
+
+	/** The file's key as text, or "" where the file system has none (or the file is gone). */
+	private String fileKey() throws IOException {
+		if (!Files.exists(file))
+			return "";
+		Object key = Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+		return key == null ? "" : key.toString();
+	}
+
+	/** Polls the file whenever its directory reports a change, until interrupted. */
+	public void follow() throws IOException, InterruptedException {
+		Path dir = file.toAbsolutePath().getParent();
+		try (WatchService watcher = dir.getFileSystem().newWatchService()) {
+			dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+			report();
+			while (!Thread.currentThread().isInterrupted()) {
+				if (poll())
+					report();
+				// the timeout covers file systems that do not deliver modify events
+				WatchKey key = watcher.poll(1, TimeUnit.SECONDS);
+				if (key != null) {
+					key.pollEvents();
+					key.reset();
+				}
+			}
+		} catch (ClosedWatchServiceException e) {
+			// stopped from outside
+		}
+	}
+
+	private void scan(int end) {
+		int i = 0;
+		while (i < end) {
+			while (i < end && ByteWords.isDelimiter(buf.get(i)))
+				i++;
+			int start = i;
+			while (i < end && !ByteWords.isDelimiter(buf.get(i)))
+				i++;
+			if (i > start) {
+				words++;
+				if (i - start == target.length && ByteWords.matches(buf, start, target))
+					matches++;
+			}
+		}
+	}
+
+	private void save() throws IOException {
+		Properties p = new Properties();
+		p.setProperty("word", word);
+		p.setProperty("file.key", fileKey);
+		p.setProperty("offset", Long.toString(offset));
+		p.setProperty("matches", Long.toString(matches));
+		p.setProperty("words", Long.toString(words));
+		Path tmp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+		try (OutputStream out = Files.newOutputStream(tmp)) {
+			p.store(out, "word count checkpoint for " + file);
+		}
+		Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private void report() {
+		System.out.println("offset " + offset + ": " + matches + " occurences in " + words + " words");
+	}
+}
@@ -0,0 +1,150 @@
+package nov_13_assignment;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Approximate top-k words in fixed memory.
+ *
+ * Every word is added to a {@link CountMinSketch}. Next to it sits a small
+ * candidate table of the words with the highest estimates seen so far; a
+ * new word replaces the weakest candidate once its estimate is higher.
+ * Candidates are found through a hash index and kept in a min-heap by
+ * estimate, so each word costs a few probes and a heap adjustment rather
+ * than a scan of all candidates. Words longer than
+ * {@link #MAX_WORD_LENGTH} bytes are counted but never kept as candidates.
+ * Memory is the sketch plus {@code capacity} candidate words, whatever
+ * the size of the input.
+ */
+public class HeavyHitters {
+
+	static final int MAX_WORD_LENGTH = 256;
+
+	private final CountMinSketch sketch;
+	private final byte[][] words;
+	private final long[] hashes;
+	private final long[] estimates;
+	/** Candidates ordered as a min-heap by estimate; heapPos[c] is c's position in it. */
+	private final int[] heap;
+	private final int[] heapPos;
+	/** Linear-probing table of candidate + 1 by hash; 0 marks an empty slot. */
+	private final int[] index;
+	private int size;
+
+	public HeavyHitters(int capacity, double epsilon, double delta) {
+		sketch = new CountMinSketch(epsilon, delta);
+		words = new byte[capacity][];
+		hashes = new long[capacity];
+		estimates = new long[capacity];
+		heap = new int[capacity];
+		heapPos = new int[capacity];
+		index = new int[Integer.highestOneBit(Math.max(2, capacity) * 2 - 1) << 1];
+	}
+
+	public void add(ByteBuffer buf, int start, int length) {
+		long h = ByteWords.hash64(buf, start, length);
+		sketch.add(h, 1);
+		long estimate = sketch.estimate(h);
+		if (size == words.length && estimate <= estimates[heap[0]] || length > MAX_WORD_LENGTH)
+			return;
+		int mask = index.length - 1;
+		int slot = (int) h & mask;
+		for (int e; (e = index[slot]) != 0; slot = (slot + 1) & mask) {
+			int c = e - 1;
+			if (hashes[c] == h && words[c].length == length && ByteWords.matches(buf, start, words[c])) {
+				estimates[c] = estimate;
+				siftDown(heapPos[c]);
+				return;
+			}
+		}
+		int c;
+		boolean replace = size == words.length;
+		if (!replace) {
+			c = size++;
+			place(c, c);
+		} else {
+			c = heap[0];
+			unindex(c);
+			slot = (int) h & mask;
+			while (index[slot] != 0)
+				slot = (slot + 1) & mask;
+		}
+		byte[] word = new byte[length];
+		for (int k = 0; k < length; k++)
+			word[k] = ByteWords.fold(buf.get(start + k));
+		words[c] = word;
+		hashes[c] = h;
+		estimates[c] = estimate;
+		index[slot] = c + 1;
+		if (replace)
+			siftDown(0);
+		else
+			siftUp(c);
+	}
+
+	/** Removes candidate {@code c} from the index, shifting later entries of its probe run back. */
+	private void unindex(int c) {
+		int mask = index.length - 1;
+		int hole = (int) hashes[c] & mask;
+		while (index[hole] != c + 1)
+			hole = (hole + 1) & mask;
+		for (int j = (hole + 1) & mask; index[j] != 0; j = (j + 1) & mask) {
+			int home = (int) hashes[index[j] - 1] & mask;
+			if (((j - home) & mask) >= ((j - hole) & mask)) {
+				index[hole] = index[j];
+				hole = j;
+			}
+		}
+		index[hole] = 0;
+	}
+
+	private void siftUp(int i) {
+		int c = heap[i];
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (estimates[heap[parent]] <= estimates[c])
+				break;
+			place(heap[parent], i);
+			i = parent;
+		}
+		place(c, i);
+	}
+
+	private void siftDown(int i) {
+		int c = heap[i];
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= size)
+				break;
+			if (child + 1 < size && estimates[heap[child + 1]] < estimates[heap[child]])
+				child++;
+			if (estimates[c] <= estimates[heap[child]])
+				break;
+			place(heap[child], i);
+			i = child;
+		}
+		place(c, i);
+	}
+
+	private void place(int c, int i) {
+		heap[i] = c;
+		heapPos[c] = i;
+	}
+
+	/** The {@code k} strongest candidates as "word estimate", highest first. */
+	public List<String> top(int k) {
+		TopK top = new TopK(k);
+		for (int i = 0; i < size; i++)
+			top.offer(i, estimates[i]);
+		List<String> result = new ArrayList<>();
+		for (long i : top.keys())
+			result.add(new String(words[(int) i], StandardCharsets.UTF_8) + " " + estimates[(int) i]);
+		return result;
+	}
+
+	public long total() {
+		return sketch.total();
+	}
+}
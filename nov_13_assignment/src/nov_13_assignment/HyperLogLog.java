@@ -0,0 +1,68 @@
+package nov_13_assignment;
+
+/**
+ * HyperLogLog distinct counter over 64-bit word hashes.
+ *
+ * The precision {@code p} is the smallest one whose standard error
+ * {@code 1.04 / sqrt(2^p)} meets the requested relative error, and the
+ * sketch keeps {@code 2^p} one-byte registers. {@code p} ranges from 4 to
+ * {@link #MAX_PRECISION}, so a looser error than 2^4 registers give is
+ * tightened, and one tighter than {@link #MIN_ERROR} is rejected. Small
+ * cardinalities fall back to linear counting.
+ */
+public class HyperLogLog {
+
+	static final int MAX_PRECISION = 18;
+	/** Standard error of the largest sketch, about 0.2%. */
+	static final double MIN_ERROR = 1.04 / Math.sqrt(1 << MAX_PRECISION);
+
+	private final int p;
+	private final byte[] registers;
+
+	public HyperLogLog(double relativeError) {
+		if (relativeError <= 0 || relativeError >= 1)
+			throw new IllegalArgumentException("relative error must be in (0, 1)");
+		if (relativeError < MIN_ERROR)
+			throw new IllegalArgumentException("relative error must be at least " + MIN_ERROR);
+		double m = Math.pow(1.04 / relativeError, 2);
+		p = Math.max(4, Math.min(MAX_PRECISION, (int) Math.ceil(Math.log(m) / Math.log(2))));
+		registers = new byte[1 << p];
+	}
+
+	public void add(long hash) {
+		int index = (int) (hash >>> (64 - p));
+		int rank = Long.numberOfLeadingZeros((hash << p) | (1L << (p - 1))) + 1;
+		if (rank > registers[index])
+			registers[index] = (byte) rank;
+	}
+
+	public long estimate() {
+		int m = registers.length;
+		double sum = 0;
+		int zeros = 0;
+		for (byte r : registers) {
+			sum += 1.0 / (1L << r);
+			if (r == 0)
+				zeros++;
+		}
+		double alpha = 0.7213 / (1 + 1.079 / m);
+		double e = alpha * m * m / sum;
+		if (e <= 2.5 * m && zeros > 0)
+			e = m * Math.log((double) m / zeros);
+		return Math.round(e);
+	}
+
+	/** Takes the register-wise maximum with a sketch of the same precision. */
+	public void merge(HyperLogLog other) {
+		if (other.p != p)
+			throw new IllegalArgumentException("sketches have different precision");
+		for (int i = 0; i < registers.length; i++) {
+			if (other.registers[i] > registers[i])
+				registers[i] = other.registers[i];
+		}
+	}
+
+	public long memoryBytes() {
+		return registers.length;
+	}
+}
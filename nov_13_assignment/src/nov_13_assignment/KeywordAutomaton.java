@@ -0,0 +1,140 @@
+package nov_13_assignment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aho-Corasick automaton that counts many keywords in one pass.
+ *
+ * The trie is compiled into a full transition table (256 entries per
+ * state), so scanning is one array lookup per input byte regardless of how
+ * many keywords there are. A hit only counts when it covers whole words,
+ * i.e. it is bounded by delimiters or by the ends of the input. Keywords
+ * may contain spaces to count short phrases.
+ */
+public class KeywordAutomaton {
+
+	private final String[] keywords;
+	private final int[] lengths;
+	private final int[] next;
+	/** Keyword ending in each state, or -1. */
+	private final int[] output;
+	/** Nearest state on the failure chain that has an output, or -1. */
+	private final int[] outputLink;
+
+	public KeywordAutomaton(List<String> words) {
+		Map<String, byte[]> unique = new LinkedHashMap<>();
+		for (String w : words) {
+			String k = w.trim();
+			if (!k.isEmpty())
+				unique.putIfAbsent(new String(ByteWords.lower(k), StandardCharsets.UTF_8), ByteWords.lower(k));
+		}
+		keywords = unique.keySet().toArray(new String[0]);
+		lengths = new int[keywords.length];
+
+		int maxStates = 1;
+		for (byte[] k : unique.values())
+			maxStates += k.length;
+		int[] goTo = new int[maxStates * 256];
+		Arrays.fill(goTo, -1);
+		int[] out = new int[maxStates];
+		Arrays.fill(out, -1);
+		int states = 1;
+		int id = 0;
+		for (byte[] k : unique.values()) {
+			int s = 0;
+			for (byte b : k) {
+				int t = s * 256 + (b & 0xFF);
+				if (goTo[t] < 0)
+					goTo[t] = states++;
+				s = goTo[t];
+			}
+			out[s] = id;
+			lengths[id++] = k.length;
+		}
+
+		next = Arrays.copyOf(goTo, states * 256);
+		output = Arrays.copyOf(out, states);
+		outputLink = new int[states];
+		int[] fail = new int[states];
+		int[] queue = new int[states];
+		int head = 0, tail = 0;
+		outputLink[0] = -1;
+		for (int b = 0; b < 256; b++) {
+			int t = next[b];
+			if (t < 0) {
+				next[b] = 0;
+			} else {
+				fail[t] = 0;
+				outputLink[t] = -1;
+				queue[tail++] = t;
+			}
+		}
+		while (head < tail) {
+			int s = queue[head++];
+			for (int b = 0; b < 256; b++) {
+				int t = next[s * 256 + b];
+				int f = next[fail[s] * 256 + b];
+				if (t < 0) {
+					next[s * 256 + b] = f;
+				} else {
+					fail[t] = f;
+					outputLink[t] = output[f] >= 0 ? f : outputLink[f];
+					queue[tail++] = t;
+				}
+			}
+		}
+	}
+
+	/** Reads one keyword per line, ignoring blank lines. */
+	public static KeywordAutomaton load(Path keywordFile) throws IOException {
+		return new KeywordAutomaton(Files.readAllLines(keywordFile, StandardCharsets.UTF_8));
+	}
+
+	public int size() {
+		return keywords.length;
+	}
+
+	public String keyword(int id) {
+		return keywords[id];
+	}
+
+	/** Counts every keyword in a file; result is indexed by keyword id. */
+	public long[] count(Path file) throws IOException {
+		long[] counts = new long[keywords.length];
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+			for (MappedByteBuffer region : MappedWordCount.map(ch))
+				count(region, 0, region.limit(), counts);
+		}
+		return counts;
+	}
+
+	/** Adds whole-word keyword hits in buf[from, to) to {@code counts}. */
+	public void count(ByteBuffer buf, int from, int to, long[] counts) {
+		int s = 0;
+		for (int i = from; i < to; i++) {
+			s = next[s * 256 + (ByteWords.fold(buf.get(i)) & 0xFF)];
+			int o = output[s] >= 0 ? s : outputLink[s];
+			if (o < 0)
+				continue;
+			if (i + 1 < to && !ByteWords.isDelimiter(buf.get(i + 1)))
+				continue;
+			for (; o >= 0; o = outputLink[o]) {
+				int k = output[o];
+				int start = i + 1 - lengths[k];
+				if (start == from || ByteWords.isDelimiter(buf.get(start - 1)))
+					counts[k]++;
+			}
+		}
+	}
+}
@@ -0,0 +1,283 @@
+package nov_13_assignment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summarizes a log4j2 file written with the pattern
+ * {@code %d %-5level %logger{36} - %msg} (log4j2.xml and log4j2-async.xml)
+ * while it is still being written.
+ *
+ * Like {@link FollowWordCount}, only bytes after the last complete line
+ * are read, through one fixed buffer. Each line is parsed in place: the
+ * timestamp digits, the level and the logger name are picked out byte by
+ * byte. Lines that do not start that way (stack traces, multi-line
+ * messages) are counted as unparsed. Loggers are interned in a
+ * case-preserving {@link ByteWordCounter}.
+ *
+ * Error rates are kept per second of log time in ring buffers of
+ * {@link #WINDOW_SECONDS} slots, so replaying an old multi-GB log gives
+ * the same windows it had when it was written. Lines more than the
+ * window behind the newest one only go into the totals.
+ */
+public class LogAnalyzer {
+
+	static final int BUFFER_SIZE = 1 << 20;
+	static final int WINDOW_SECONDS = 900;
+	static final int[] REPORTED_WINDOWS = { 60, 300, 900 };
+
+	static final String[] LEVELS = { "TRACE", "DEBUG", "INFO", "WARN", "ERROR", "FATAL" };
+	static final int ERROR = 4;
+	private static final byte[][] LEVEL_BYTES = new byte[LEVELS.length][];
+	static {
+		for (int i = 0; i < LEVELS.length; i++)
+			LEVEL_BYTES[i] = LEVELS[i].getBytes(StandardCharsets.US_ASCII);
+	}
+
+	private final Path file;
+	private final ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	private long offset;
+
+	private final long[] levels = new long[LEVELS.length];
+	private long unparsed;
+	private ByteWordCounter loggers = new ByteWordCounter(1 << 10, true);
+	private long[] loggerErrors = new long[1 << 10];
+
+	private final long[] slotSecond = new long[WINDOW_SECONDS];
+	private final long[] slotLines = new long[WINDOW_SECONDS];
+	private final long[] slotErrors = new long[WINDOW_SECONDS];
+	private long latest = Long.MIN_VALUE;
+
+	public LogAnalyzer(Path file) {
+		this.file = file;
+	}
+
+	/** Parses whatever was appended since the last call. Returns true if the offset moved. */
+	public boolean poll() throws IOException {
+		if (!Files.exists(file))
+			return false;
+		long before = offset;
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = ch.size();
+			if (size < offset)
+				reset();
+			while (offset < size) {
+				buf.clear();
+				int n = ch.read(buf, offset);
+				if (n <= 0)
+					break;
+				int end = n;
+				while (end > 0 && buf.get(end - 1) != '\n')
+					end--;
+				if (end == 0) {
+					if (n < buf.capacity())
+						break;
+					// a single line longer than the buffer; its tail shows up as an unparsed line
+					end = n;
+				}
+				int start = 0;
+				for (int i = 0; i < end; i++) {
+					if (buf.get(i) == '\n') {
+						line(start, i);
+						start = i + 1;
+					}
+				}
+				if (start < end)
+					line(start, end);
+				offset += end;
+			}
+		}
+		return offset != before;
+	}
+
+	/** Polls the file whenever its directory reports a change, until interrupted. */
+	public void follow() throws IOException, InterruptedException {
+		Path dir = file.toAbsolutePath().getParent();
+		try (WatchService watcher = dir.getFileSystem().newWatchService()) {
+			dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+			if (poll())
+				report();
+			while (!Thread.currentThread().isInterrupted()) {
+				WatchKey key = watcher.poll(1, TimeUnit.SECONDS);
+				if (key != null) {
+					key.pollEvents();
+					key.reset();
+				}
+				if (poll())
+					report();
+			}
+		} catch (ClosedWatchServiceException e) {
+			// stopped from outside
+		}
+	}
+
+	/** Parses the line in buf[from, to), without its line break. */
+	private void line(int from, int to) {
+		if (to > from && buf.get(to - 1) == '\r')
+			to--;
+		long second = second(from, to);
+		int i = from + 19;
+		if (second < 0) {
+			unparsed++;
+			return;
+		}
+		if (i + 4 <= to && (buf.get(i) == ',' || buf.get(i) == '.') && digits(i + 1, 3) >= 0)
+			i += 4;
+		if (i >= to || buf.get(i) != ' ') {
+			unparsed++;
+			return;
+		}
+		int levelStart = ++i;
+		while (i < to && buf.get(i) != ' ')
+			i++;
+		int level = level(levelStart, i - levelStart);
+		while (i < to && buf.get(i) == ' ')
+			i++;
+		int loggerStart = i;
+		while (i < to && buf.get(i) != ' ')
+			i++;
+		if (level < 0 || i == loggerStart || i + 2 > to || buf.get(i + 1) != '-') {
+			unparsed++;
+			return;
+		}
+
+		levels[level]++;
+		int id = loggers.add(buf, loggerStart, i - loggerStart, 1);
+		boolean error = level >= ERROR;
+		if (error) {
+			if (id >= loggerErrors.length)
+				loggerErrors = Arrays.copyOf(loggerErrors, loggerErrors.length * 2);
+			loggerErrors[id]++;
+		}
+		window(second, error);
+	}
+
+	private void window(long second, boolean error) {
+		if (second > latest) {
+			long from = latest == Long.MIN_VALUE ? second : Math.max(latest + 1, second - WINDOW_SECONDS + 1);
+			for (long s = from; s <= second; s++) {
+				int slot = (int) Math.floorMod(s, (long) WINDOW_SECONDS);
+				slotSecond[slot] = s;
+				slotLines[slot] = 0;
+				slotErrors[slot] = 0;
+			}
+			latest = second;
+		} else if (second <= latest - WINDOW_SECONDS) {
+			return;
+		}
+		int slot = (int) Math.floorMod(second, (long) WINDOW_SECONDS);
+		if (slotSecond[slot] != second)
+			return;
+		slotLines[slot]++;
+		if (error)
+			slotErrors[slot]++;
+	}
+
+	/** Seconds since 1970-01-01 of a {@code yyyy-MM-dd HH:mm:ss} prefix, read as UTC, or -1. */
+	private long second(int from, int to) {
+		if (to - from < 19 || buf.get(from + 4) != '-' || buf.get(from + 7) != '-' || buf.get(from + 10) != ' '
+				|| buf.get(from + 13) != ':' || buf.get(from + 16) != ':')
+			return -1;
+		int year = digits(from, 4);
+		int month = digits(from + 5, 2);
+		int day = digits(from + 8, 2);
+		int hour = digits(from + 11, 2);
+		int minute = digits(from + 14, 2);
+		int sec = digits(from + 17, 2);
+		if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31 || hour < 0 || minute < 0 || sec < 0)
+			return -1;
+		// days from civil, https://howardhinnant.github.io/date_algorithms.html
+		int y = month <= 2 ? year - 1 : year;
+		int era = y / 400;
+		int yoe = y - era * 400;
+		int doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+		int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+		long days = era * 146097L + doe - 719468;
+		return days * 86400 + hour * 3600 + minute * 60 + sec;
+	}
+
+	private int digits(int at, int count) {
+		int value = 0;
+		for (int i = at; i < at + count; i++) {
+			int d = buf.get(i) - '0';
+			if (d < 0 || d > 9)
+				return -1;
+			value = value * 10 + d;
+		}
+		return value;
+	}
+
+	private int level(int start, int length) {
+		for (int l = 0; l < LEVEL_BYTES.length; l++) {
+			byte[] name = LEVEL_BYTES[l];
+			if (name.length != length)
+				continue;
+			int i = 0;
+			while (i < length && buf.get(start + i) == name[i])
+				i++;
+			if (i == length)
+				return l;
+		}
+		return -1;
+	}
+
+	private void reset() {
+		offset = 0;
+		unparsed = 0;
+		Arrays.fill(levels, 0);
+		Arrays.fill(slotLines, 0);
+		Arrays.fill(slotErrors, 0);
+		latest = Long.MIN_VALUE;
+		loggers = new ByteWordCounter(1 << 10, true);
+		Arrays.fill(loggerErrors, 0);
+	}
+
+	public long lines(int level) {
+		return levels[level];
+	}
+
+	public long unparsed() {
+		return unparsed;
+	}
+
+	/** Lines and ERROR/FATAL lines in the last {@code seconds} seconds of log time, as {lines, errors}. */
+	public long[] window(int seconds) {
+		long[] result = new long[2];
+		if (latest == Long.MIN_VALUE)
+			return result;
+		for (long s = latest - Math.min(seconds, WINDOW_SECONDS) + 1; s <= latest; s++) {
+			int slot = (int) Math.floorMod(s, (long) WINDOW_SECONDS);
+			if (slotSecond[slot] == s) {
+				result[0] += slotLines[slot];
+				result[1] += slotErrors[slot];
+			}
+		}
+		return result;
+	}
+
+	public void report() {
+		StringBuilder sb = new StringBuilder("offset ").append(offset).append(':');
+		for (int l = 0; l < LEVELS.length; l++)
+			sb.append(' ').append(LEVELS[l]).append(' ').append(levels[l]);
+		sb.append(", unparsed ").append(unparsed);
+		System.out.println(sb);
+		for (int seconds : REPORTED_WINDOWS) {
+			long[] w = window(seconds);
+			double rate = w[0] == 0 ? 0 : 100.0 * w[1] / w[0];
+			System.out.println(String.format("  last %3ds: %d errors in %d lines (%.2f%%)", seconds, w[1], w[0], rate));
+		}
+		for (int id : loggers.top(10))
+			System.out.println("  " + loggers.word(id) + " " + loggers.count(id) + " lines, " + loggerErrors[id] + " errors");
+	}
+}
@@ -0,0 +1,80 @@
+package nov_13_assignment;
+
+/**
+ * Open-addressing map from non-zero long keys to long values.
+ *
+ * Keys and values sit in two parallel arrays probed linearly, with 0
+ * marking an empty slot, so there is no boxing and no entry objects.
+ */
+public class LongLongMap {
+
+	private long[] keys;
+	private long[] values;
+	private int mask;
+	private int size;
+
+	public LongLongMap(int expected) {
+		int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+		keys = new long[capacity];
+		values = new long[capacity];
+		mask = capacity - 1;
+	}
+
+	/** Adds {@code delta} to the value of {@code key}, which must not be 0. */
+	public void add(long key, long delta) {
+		int slot = slot(key);
+		while (keys[slot] != 0) {
+			if (keys[slot] == key) {
+				values[slot] += delta;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = delta;
+		if (++size * 2 >= keys.length)
+			grow();
+	}
+
+	public long get(long key) {
+		for (int slot = slot(key); keys[slot] != 0; slot = (slot + 1) & mask) {
+			if (keys[slot] == key)
+				return values[slot];
+		}
+		return 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/** Offers every entry to {@code top}. */
+	public void offerAll(TopK top) {
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != 0)
+				top.offer(keys[i], values[i]);
+		}
+	}
+
+	private int slot(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+
+	private void grow() {
+		long[] oldKeys = keys;
+		long[] oldValues = values;
+		keys = new long[oldKeys.length * 2];
+		values = new long[oldKeys.length * 2];
+		mask = keys.length - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] == 0)
+				continue;
+			int slot = slot(oldKeys[i]);
+			while (keys[slot] != 0)
+				slot = (slot + 1) & mask;
+			keys[slot] = oldKeys[i];
+			values[slot] = oldValues[i];
+		}
+	}
+}
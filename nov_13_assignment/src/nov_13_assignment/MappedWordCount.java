@@ -0,0 +1,105 @@
+package nov_13_assignment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Memory-mapped, fork/join word counter.
+ *
+ * The file is mapped in regions (a single mapping cannot exceed 2 GB) whose
+ * ends are moved forward to the next delimiter, so no word is split between
+ * two regions. Each region is then halved recursively, again on delimiter
+ * boundaries, until the pieces are small enough to scan in one task.
+ */
+public class MappedWordCount {
+
+	static final long REGION_SIZE = 1L << 30;
+	static final int THRESHOLD = 1 << 20;
+
+	public static long count(Path file, String word) throws IOException {
+		return count(file, word, ForkJoinPool.commonPool());
+	}
+
+	public static long count(Path file, String word, ForkJoinPool pool) throws IOException {
+		if (word.isEmpty())
+			throw new IllegalArgumentException("word must not be empty");
+		byte[] target = ByteWords.lower(word);
+		List<CountTask> tasks = new ArrayList<>();
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+			for (MappedByteBuffer region : map(ch)) {
+				CountTask task = new CountTask(region, 0, region.limit(), target);
+				pool.execute(task);
+				tasks.add(task);
+			}
+		}
+		long total = 0;
+		for (CountTask task : tasks)
+			total += task.join();
+		return total;
+	}
+
+	/** Maps the whole file as read-only regions that all end on a delimiter (or at end of file). */
+	static List<MappedByteBuffer> map(FileChannel ch) throws IOException {
+		List<MappedByteBuffer> regions = new ArrayList<>();
+		long size = ch.size();
+		long start = 0;
+		while (start < size) {
+			long end = alignedEnd(ch, Math.min(size, start + REGION_SIZE), size);
+			regions.add(ch.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+			start = end;
+		}
+		return regions;
+	}
+
+	private static long alignedEnd(FileChannel ch, long end, long size) throws IOException {
+		ByteBuffer probe = ByteBuffer.allocate(256);
+		while (end < size) {
+			probe.clear();
+			int n = ch.read(probe, end);
+			if (n <= 0)
+				return size;
+			for (int i = 0; i < n; i++) {
+				if (ByteWords.isDelimiter(probe.get(i)))
+					return end + i;
+			}
+			end += n;
+		}
+		return size;
+	}
+
+	@SuppressWarnings("serial")
+	static class CountTask extends RecursiveTask<Long> {
+		private final ByteBuffer buf;
+		private final int from;
+		private final int to;
+		private final byte[] target;
+
+		CountTask(ByteBuffer buf, int from, int to, byte[] target) {
+			this.buf = buf;
+			this.from = from;
+			this.to = to;
+			this.target = target;
+		}
+
+		@Override
+		protected Long compute() {
+			if (to - from <= THRESHOLD)
+				return ByteWords.count(buf, from, to, target);
+			int mid = ByteWords.nextDelimiter(buf, from + (to - from) / 2, to);
+			if (mid >= to)
+				return ByteWords.count(buf, from, to, target);
+			CountTask left = new CountTask(buf, from, mid, target);
+			left.fork();
+			long right = new CountTask(buf, mid, to, target).compute();
+			return left.join() + right;
+		}
+	}
+}
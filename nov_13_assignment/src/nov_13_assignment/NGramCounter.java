@@ -0,0 +1,99 @@
+package nov_13_assignment;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Counts bigrams or trigrams without building phrase Strings.
+ *
+ * Words are interned to dense int ids by a {@link ByteWordCounter}, and
+ * an n-gram is packed into one long key of {@code id + 1} values: 32 bits
+ * each for bigrams, 21 bits each for trigrams (so trigram mode supports
+ * about two million distinct words). The keys are counted in a
+ * {@link LongLongMap}. N-grams never span a line break.
+ */
+public class NGramCounter {
+
+	static final int TRIGRAM_BITS = 21;
+
+	private final int n;
+	private final ByteWordCounter words = new ByteWordCounter(1 << 16);
+	private final LongLongMap grams = new LongLongMap(1 << 16);
+
+	private final int[] window;
+	private int filled;
+	private ByteBuffer lastBuf;
+	private int lastEnd;
+
+	public NGramCounter(int n) {
+		if (n != 2 && n != 3)
+			throw new IllegalArgumentException("only bigrams and trigrams are supported");
+		this.n = n;
+		window = new int[n];
+	}
+
+	public void add(WordSlice word) {
+		if (word.buf != lastBuf || lineBreakBetween(word.buf, lastEnd, word.start))
+			filled = 0;
+		lastBuf = word.buf;
+		lastEnd = word.start + word.length;
+
+		int id = words.add(word);
+		if (n == 3 && id + 1 >= 1 << TRIGRAM_BITS)
+			throw new IllegalStateException("too many distinct words for trigram keys");
+		if (filled < n) {
+			window[filled++] = id;
+		} else {
+			System.arraycopy(window, 1, window, 0, n - 1);
+			window[n - 1] = id;
+		}
+		if (filled == n)
+			grams.add(key(window), 1);
+	}
+
+	private static boolean lineBreakBetween(ByteBuffer buf, int from, int to) {
+		for (int i = from; i < to; i++) {
+			if (buf.get(i) == '\n')
+				return true;
+		}
+		return false;
+	}
+
+	private long key(int[] ids) {
+		if (n == 2)
+			return ((long) (ids[0] + 1) << 32) | (ids[1] + 1);
+		return ((long) (ids[0] + 1) << (2 * TRIGRAM_BITS)) | ((long) (ids[1] + 1) << TRIGRAM_BITS) | (ids[2] + 1);
+	}
+
+	/** Word ids packed in {@code key}. */
+	public int[] ids(long key) {
+		if (n == 2)
+			return new int[] { (int) (key >>> 32) - 1, (int) key - 1 };
+		int m = (1 << TRIGRAM_BITS) - 1;
+		return new int[] { (int) (key >>> (2 * TRIGRAM_BITS)) - 1, (int) (key >>> TRIGRAM_BITS & m) - 1, (int) (key & m) - 1 };
+	}
+
+	public String phrase(long key) {
+		StringBuilder sb = new StringBuilder();
+		for (int id : ids(key)) {
+			if (sb.length() > 0)
+				sb.append(' ');
+			sb.append(words.word(id));
+		}
+		return sb.toString();
+	}
+
+	public long count(long key) {
+		return grams.get(key);
+	}
+
+	public int distinct() {
+		return grams.size();
+	}
+
+	/** Keys of the {@code k} most frequent n-grams, most frequent first. */
+	public long[] top(int k) {
+		TopK top = new TopK(k);
+		grams.offerAll(top);
+		return top.keys();
+	}
+}
@@ -0,0 +1,25 @@
+package nov_13_assignment;
+
+import java.nio.ByteBuffer;
+
+/** One byte at a time, using the lookup table in {@link ByteWords}. */
+final class ScalarDelimiterScanner implements DelimiterScanner {
+
+	@Override
+	public int skipDelimiters(ByteBuffer buf, int from, int to) {
+		int i = from;
+		while (i < to && ByteWords.isDelimiter(buf.get(i)))
+			i++;
+		return i;
+	}
+
+	@Override
+	public int nextDelimiter(ByteBuffer buf, int from, int to) {
+		return ByteWords.nextDelimiter(buf, from, to);
+	}
+
+	@Override
+	public String backend() {
+		return "scalar";
+	}
+}
@@ -0,0 +1,87 @@
+package nov_13_assignment;
+
+/**
+ * Keeps the {@code k} keys with the largest counts seen so far.
+ *
+ * Backed by a min-heap of size {@code k} over two primitive arrays, so
+ * offering a key is O(log k) and never allocates. Keys are longs so the
+ * same heap works for word ids and packed n-gram keys.
+ */
+public class TopK {
+
+	private final long[] keys;
+	private final long[] counts;
+	private int size;
+
+	public TopK(int k) {
+		keys = new long[k];
+		counts = new long[k];
+	}
+
+	public void offer(long key, long count) {
+		if (size < keys.length) {
+			keys[size] = key;
+			counts[size] = count;
+			up(size++);
+		} else if (size > 0 && count > counts[0]) {
+			keys[0] = key;
+			counts[0] = count;
+			down(0);
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/** Smallest count currently kept, or 0 while the heap is not full. */
+	public long threshold() {
+		return size < keys.length ? 0 : counts[0];
+	}
+
+	/** Kept keys ordered by count, largest first. Empties the heap. */
+	public long[] keys() {
+		long[] result = new long[size];
+		while (size > 0) {
+			result[size - 1] = keys[0];
+			size--;
+			keys[0] = keys[size];
+			counts[0] = counts[size];
+			down(0);
+		}
+		return result;
+	}
+
+	private void up(int i) {
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+			if (counts[parent] <= counts[i])
+				return;
+			swap(i, parent);
+			i = parent;
+		}
+	}
+
+	private void down(int i) {
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= size)
+				return;
+			if (child + 1 < size && counts[child + 1] < counts[child])
+				child++;
+			if (counts[i] <= counts[child])
+				return;
+			swap(i, child);
+			i = child;
+		}
+	}
+
+	private void swap(int a, int b) {
+		long k = keys[a];
+		keys[a] = keys[b];
+		keys[b] = k;
+		long c = counts[a];
+		counts[a] = counts[b];
+		counts[b] = c;
+	}
+}
@@ -0,0 +1,91 @@
+package nov_13_assignment;
+
+import java.nio.ByteBuffer;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD boundary scanner.
+ *
+ * Classifies 64 bytes at a time with the widest byte vectors the CPU
+ * offers (32 lanes on AVX2, 64 on AVX-512; capped at 64 lanes, so wider
+ * SVE machines use 512-bit vectors) and keeps the result as a
+ * 64-bit delimiter mask, so consecutive words in the same block are found
+ * with bit operations only. Blocks are copied into a small array first
+ * because the ByteBuffer loaders of the Vector API differ between JDK
+ * releases. The last bytes of a buffer, where a full block does not fit,
+ * use the scalar loop.
+ */
+final class VectorDelimiterScanner implements DelimiterScanner {
+
+	private static final int BLOCK = 64;
+	// a mask of more than 64 lanes does not fit toLong()
+	private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED.length() <= BLOCK
+			? ByteVector.SPECIES_PREFERRED
+			: ByteVector.SPECIES_512;
+
+	private final byte[] block = new byte[BLOCK];
+	private ByteBuffer blockBuf;
+	private int blockStart;
+	/** Bit k is set when byte blockStart + k is a delimiter. */
+	private long bits;
+
+	@Override
+	public int skipDelimiters(ByteBuffer buf, int from, int to) {
+		return scan(buf, from, to, true);
+	}
+
+	@Override
+	public int nextDelimiter(ByteBuffer buf, int from, int to) {
+		return scan(buf, from, to, false);
+	}
+
+	@Override
+	public String backend() {
+		return "vector";
+	}
+
+	private int scan(ByteBuffer buf, int i, int to, boolean skipDelimiters) {
+		while (i < to) {
+			if (i + BLOCK > buf.limit())
+				return scalar(buf, i, to, skipDelimiters);
+			if (buf != blockBuf || i < blockStart || i >= blockStart + BLOCK)
+				load(buf, i);
+			long m = (skipDelimiters ? ~bits : bits) >>> (i - blockStart);
+			if (m != 0)
+				return Math.min(to, i + Long.numberOfTrailingZeros(m));
+			i = blockStart + BLOCK;
+		}
+		return to;
+	}
+
+	private void load(ByteBuffer buf, int start) {
+		buf.get(start, block, 0, BLOCK);
+		long m = 0;
+		for (int j = 0; j < BLOCK; j += SPECIES.length())
+			m |= delimiters(ByteVector.fromArray(SPECIES, block, j)).toLong() << j;
+		blockBuf = buf;
+		blockStart = start;
+		bits = m;
+	}
+
+	/** Same classification as {@link ByteWords#isDelimiter(byte)}: not an ASCII letter or digit and below 0x80. */
+	private static VectorMask<Byte> delimiters(ByteVector v) {
+		ByteVector lower = v.or((byte) 0x20);
+		VectorMask<Byte> letter = lower.compare(VectorOperators.GE, (byte) 'a')
+				.and(lower.compare(VectorOperators.LE, (byte) 'z'));
+		VectorMask<Byte> digit = v.compare(VectorOperators.GE, (byte) '0')
+				.and(v.compare(VectorOperators.LE, (byte) '9'));
+		VectorMask<Byte> nonAscii = v.compare(VectorOperators.LT, (byte) 0);
+		return letter.or(digit).or(nonAscii).not();
+	}
+
+	private static int scalar(ByteBuffer buf, int i, int to, boolean skipDelimiters) {
+		while (i < to && ByteWords.isDelimiter(buf.get(i)) == skipDelimiters)
+			i++;
+		return i;
+	}
+}
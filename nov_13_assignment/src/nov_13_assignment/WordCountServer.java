@@ -0,0 +1,150 @@
+package nov_13_assignment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Counts words in an HTTP upload while it is still arriving.
+ *
+ * <pre>
+ * curl -T big.log "http://localhost:8080/count?word=india"
+ * curl -T big.log "http://localhost:8080/count?top=10"
+ * </pre>
+ *
+ * The body (plain or chunked) is read through one fixed buffer per
+ * request. A word cut off at the end of the buffer is moved to the front
+ * and finished by the next read. Target-word mode keeps a single counter,
+ * and top-k mode uses {@link HeavyHitters}, so memory per request does not
+ * depend on the upload size. Top-k counts are estimates that can only be
+ * too high.
+ */
+public class WordCountServer {
+
+	static final int BUFFER_SIZE = 64 << 10;
+	static final int TOP_CANDIDATES_PER_RESULT = 8;
+
+	public static HttpServer start(int port, int threads) throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+		server.setExecutor(Executors.newFixedThreadPool(threads));
+		server.createContext("/count", WordCountServer::handle);
+		server.start();
+		return server;
+	}
+
+	private static void handle(HttpExchange exchange) throws IOException {
+		try (exchange) {
+			String method = exchange.getRequestMethod();
+			if (!method.equals("POST") && !method.equals("PUT")) {
+				respond(exchange, 405, "use POST or PUT with the text as the request body\n");
+				return;
+			}
+			Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+			String result;
+			try {
+				if (query.containsKey("top"))
+					result = top(exchange.getRequestBody(), Integer.parseInt(query.get("top")));
+				else
+					result = target(exchange.getRequestBody(), query.getOrDefault("word", "india"));
+			} catch (IllegalArgumentException e) {
+				respond(exchange, 400, e.getMessage() + "\n");
+				return;
+			}
+			respond(exchange, 200, result);
+		}
+	}
+
+	private static String target(InputStream body, String word) throws IOException {
+		if (word.isEmpty())
+			throw new IllegalArgumentException("word must not be empty");
+		byte[] target = ByteWords.lower(word);
+		long[] count = new long[1];
+		long bytes = read(body, (buf, to) -> count[0] += ByteWords.count(buf, 0, to, target));
+		return "no. of occurences is: " + count[0] + "\nbytes: " + bytes + "\n";
+	}
+
+	private static String top(InputStream body, int k) throws IOException {
+		if (k <= 0 || k > 1000)
+			throw new IllegalArgumentException("top must be between 1 and 1000");
+		HeavyHitters hitters = new HeavyHitters(k * TOP_CANDIDATES_PER_RESULT, 0.0002, 0.001);
+		long bytes = read(body, (buf, to) -> {
+			int i = 0;
+			while (i < to) {
+				while (i < to && ByteWords.isDelimiter(buf.get(i)))
+					i++;
+				int start = i;
+				while (i < to && !ByteWords.isDelimiter(buf.get(i)))
+					i++;
+				if (i > start)
+					hitters.add(buf, start, i - start);
+			}
+		});
+		StringBuilder sb = new StringBuilder();
+		for (String line : hitters.top(k))
+			sb.append(line).append('\n');
+		sb.append("words: ").append(hitters.total()).append("\nbytes: ").append(bytes).append('\n');
+		return sb.toString();
+	}
+
+	private interface Chunk {
+		void accept(ByteBuffer buf, int to);
+	}
+
+	/** Feeds the body to {@code chunk} in pieces that end on a delimiter and returns the byte count. */
+	private static long read(InputStream body, Chunk chunk) throws IOException {
+		byte[] bytes = new byte[BUFFER_SIZE];
+		ByteBuffer buf = ByteBuffer.wrap(bytes);
+		long total = 0;
+		int filled = 0;
+		int n;
+		while ((n = body.read(bytes, filled, bytes.length - filled)) > 0) {
+			total += n;
+			filled += n;
+			int end = filled;
+			while (end > 0 && !ByteWords.isDelimiter(bytes[end - 1]))
+				end--;
+			if (end == 0) {
+				if (filled < bytes.length)
+					continue;
+				end = filled;
+			}
+			chunk.accept(buf, end);
+			System.arraycopy(bytes, end, bytes, 0, filled - end);
+			filled -= end;
+		}
+		chunk.accept(buf, filled);
+		return total;
+	}
+
+	private static Map<String, String> query(String raw) {
+		Map<String, String> params = new HashMap<>();
+		if (raw == null)
+			return params;
+		for (String pair : raw.split("&")) {
+			int eq = pair.indexOf('=');
+			String key = eq < 0 ? pair : pair.substring(0, eq);
+			String value = eq < 0 ? "" : pair.substring(eq + 1);
+			params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+		}
+		return params;
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package nov_13_assignment;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read side of the index written by {@link WordIndexBuilder}.
+ *
+ * The index file is memory-mapped once and a lookup is a binary search
+ * over the sorted term table, so queries never touch the source text. The
+ * whole index must fit in one mapping (2 GB).
+ */
+public class WordIndex {
+
+	private final MappedByteBuffer buf;
+	private final int termCount;
+
+	private WordIndex(MappedByteBuffer buf) throws IOException {
+		this.buf = buf;
+		if (buf.getInt(0) != WordIndexBuilder.MAGIC || buf.getInt(4) != WordIndexBuilder.VERSION)
+			throw new IOException("not a word index");
+		termCount = buf.getInt(8);
+	}
+
+	public static WordIndex open(Path index) throws IOException {
+		try (FileChannel ch = FileChannel.open(index, StandardOpenOption.READ)) {
+			return new WordIndex(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+		}
+	}
+
+	public int terms() {
+		return termCount;
+	}
+
+	/** Number of occurrences of {@code word}, 0 if it is not in the index. */
+	public long count(String word) {
+		int entry = find(ByteWords.lower(word));
+		return entry < 0 ? 0 : buf.getLong(entry + 16);
+	}
+
+	/** Byte offsets of every occurrence of {@code word} in the source file, in order. */
+	public long[] positions(String word) {
+		int entry = find(ByteWords.lower(word));
+		if (entry < 0)
+			return new long[0];
+		long[] positions = new long[(int) buf.getLong(entry + 16)];
+		int p = (int) buf.getLong(entry + 8);
+		long position = 0;
+		for (int i = 0; i < positions.length; i++) {
+			long delta = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = buf.get(p++);
+				delta |= (long) (b & 0x7F) << shift;
+				shift += 7;
+			} while (b < 0);
+			position += delta;
+			positions[i] = position;
+		}
+		return positions;
+	}
+
+	/** Position of the term table entry for {@code key}, or -1. */
+	private int find(byte[] key) {
+		int lo = 0;
+		int hi = termCount - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			int entry = WordIndexBuilder.HEADER_SIZE + mid * WordIndexBuilder.ENTRY_SIZE;
+			int c = compare(entry, key);
+			if (c < 0)
+				lo = mid + 1;
+			else if (c > 0)
+				hi = mid - 1;
+			else
+				return entry;
+		}
+		return -1;
+	}
+
+	private int compare(int entry, byte[] key) {
+		int off = (int) buf.getLong(entry);
+		int len = buf.getInt(entry + 24);
+		int n = Math.min(len, key.length);
+		for (int i = 0; i < n; i++) {
+			int c = Integer.compare(buf.get(off + i) & 0xFF, key[i] & 0xFF);
+			if (c != 0)
+				return c;
+		}
+		return Integer.compare(len, key.length);
+	}
+}
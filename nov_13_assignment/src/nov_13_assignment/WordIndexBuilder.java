@@ -0,0 +1,128 @@
+package nov_13_assignment;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Writes an inverted index of a text file for {@link WordIndex}.
+ *
+ * Layout, all numbers big-endian:
+ * <pre>
+ * header    int magic "WIDX", int version, int term count, int unused
+ * terms     one 32-byte entry per term, sorted by term bytes:
+ *           long term offset, long postings offset, long count,
+ *           int term length, int postings length
+ * term data the lower-cased term bytes back to back
+ * postings  per term, the byte offsets of its occurrences in the source
+ *           file as deltas from the previous one, in unsigned LEB128
+ * </pre>
+ * Offsets in the term table are absolute file positions.
+ */
+public class WordIndexBuilder {
+
+	static final int MAGIC = 0x57494458;
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 16;
+	static final int ENTRY_SIZE = 32;
+
+	private final ByteWordCounter terms = new ByteWordCounter(1 << 16);
+	private byte[][] postings = new byte[1 << 16][];
+	private int[] postingLengths = new int[1 << 16];
+	private long[] lastPositions = new long[1 << 16];
+
+	public static void build(Path source, Path index) throws IOException {
+		WordIndexBuilder builder = new WordIndexBuilder();
+		try (FileChannel ch = FileChannel.open(source, StandardOpenOption.READ)) {
+			long base = 0;
+			for (MappedByteBuffer region : MappedWordCount.map(ch)) {
+				builder.add(region, base);
+				base += region.limit();
+			}
+		}
+		builder.write(index);
+	}
+
+	private void add(ByteBuffer buf, long base) {
+		int end = buf.limit();
+		int i = 0;
+		while (i < end) {
+			while (i < end && ByteWords.isDelimiter(buf.get(i)))
+				i++;
+			int start = i;
+			while (i < end && !ByteWords.isDelimiter(buf.get(i)))
+				i++;
+			if (i > start)
+				append(terms.add(buf, start, i - start, 1), base + start);
+		}
+	}
+
+	private void append(int id, long position) {
+		if (id >= postings.length) {
+			int n = postings.length * 2;
+			postings = Arrays.copyOf(postings, n);
+			postingLengths = Arrays.copyOf(postingLengths, n);
+			lastPositions = Arrays.copyOf(lastPositions, n);
+		}
+		byte[] p = postings[id];
+		int len = postingLengths[id];
+		if (p == null) {
+			p = postings[id] = new byte[8];
+		} else if (len + 10 > p.length) {
+			p = postings[id] = Arrays.copyOf(p, p.length * 2);
+		}
+		long delta = position - lastPositions[id];
+		lastPositions[id] = position;
+		while ((delta & ~0x7FL) != 0) {
+			p[len++] = (byte) ((delta & 0x7F) | 0x80);
+			delta >>>= 7;
+		}
+		p[len++] = (byte) delta;
+		postingLengths[id] = len;
+	}
+
+	private void write(Path index) throws IOException {
+		int n = terms.size();
+		byte[][] words = new byte[n][];
+		Integer[] order = new Integer[n];
+		for (int id = 0; id < n; id++) {
+			words[id] = terms.wordBytes(id);
+			order[id] = id;
+		}
+		Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(words[a], words[b]));
+
+		long termData = HEADER_SIZE + (long) n * ENTRY_SIZE;
+		long postingData = termData;
+		for (byte[] w : words)
+			postingData += w.length;
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(index), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(n);
+			out.writeInt(0);
+			long termOffset = termData;
+			long postingOffset = postingData;
+			for (int id : order) {
+				out.writeLong(termOffset);
+				out.writeLong(postingOffset);
+				out.writeLong(terms.count(id));
+				out.writeInt(words[id].length);
+				out.writeInt(postingLengths[id]);
+				termOffset += words[id].length;
+				postingOffset += postingLengths[id];
+			}
+			for (int id : order)
+				out.write(words[id]);
+			for (int id : order)
+				out.write(postings[id], 0, postingLengths[id]);
+		}
+	}
+}
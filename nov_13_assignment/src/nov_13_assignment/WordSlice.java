@@ -0,0 +1,51 @@
+package nov_13_assignment;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A view of one word inside a byte buffer.
+ *
+ * Tokenizers reuse a single instance and move it from word to word, so a
+ * slice is only valid inside the callback that received it. Copy it with
+ * {@link #toString()} if it has to outlive that call.
+ */
+public final class WordSlice {
+
+	ByteBuffer buf;
+	int start;
+	int length;
+
+	void set(ByteBuffer buf, int start, int length) {
+		this.buf = buf;
+		this.start = start;
+		this.length = length;
+	}
+
+	public int length() {
+		return length;
+	}
+
+	/** Lower-cased byte at index {@code i} of this word. */
+	public byte byteAt(int i) {
+		return ByteWords.fold(buf.get(start + i));
+	}
+
+	/** Case-insensitive comparison against a target produced by {@link #target(String)}. */
+	public boolean is(byte[] target) {
+		return length == target.length && ByteWords.matches(buf, start, target);
+	}
+
+	/** Lower-cased UTF-8 bytes of {@code word} for use with {@link #is(byte[])}. */
+	public static byte[] target(String word) {
+		return ByteWords.lower(word);
+	}
+
+	@Override
+	public String toString() {
+		byte[] bytes = new byte[length];
+		for (int i = 0; i < length; i++)
+			bytes[i] = byteAt(i);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -9,6 +9,8 @@ plugins {
     // Apply the java-library plugin for API and implementation separation.
     application
     `java-library`
+    // Adds the src/jmh source set and the jmh task for microbenchmarks.
+    alias(libs.plugins.jmh)
 }
 
 repositories {
@@ -38,6 +40,10 @@ java {
     }
 }
 
+jmh {
+    jmhVersion = libs.versions.jmh
+}
+
 tasks.named<Test>("test") {
     // Use JUnit Platform for unit tests.
     useJUnitPlatform()
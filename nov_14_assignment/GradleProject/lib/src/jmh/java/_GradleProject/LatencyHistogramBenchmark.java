@@ -0,0 +1,79 @@
+package _GradleProject;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one {@link LatencyHistogram#record} call, alone and with every
+ * core recording into the same histogram. stripes=1 shows the contended
+ * cost without striping; "locked" is the same buckets behind a monitor.
+ *
+ * <pre>
+ * ./gradlew :lib:jmh
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LatencyHistogramBenchmark {
+
+    @Param({ "1", "64" })
+    int stripes;
+
+    LatencyHistogram histogram;
+    final long[] locked = new long[LatencyHistogram.index(LatencyHistogram.DEFAULT_HIGHEST) + 1];
+
+    @Setup
+    public void setUp() {
+        histogram = new LatencyHistogram(LatencyHistogram.DEFAULT_HIGHEST, stripes);
+    }
+
+    /** Latency-like values, different per thread, without allocation. */
+    @State(Scope.Thread)
+    public static class Values {
+        long x = System.nanoTime() | 1;
+
+        long next() {
+            x ^= x << 13;
+            x ^= x >>> 7;
+            x ^= x << 17;
+            return 1000 + (x & 0xFFFF);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void record(Values values) {
+        histogram.record(values.next());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void recordContended(Values values) {
+        histogram.record(values.next());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void lockedContended(Values values) {
+        long v = values.next();
+        synchronized (locked) {
+            locked[LatencyHistogram.index(v)]++;
+        }
+    }
+}
@@ -10,6 +10,15 @@ public class App {
         logger.debug("Debug message");
         logger.error("Error occurred");
 
+        Library library = new Library();
+        LatencyHistogram work = library.latency("work");
+        for (int i = 0; i < 100_000; i++) {
+            long start = System.nanoTime();
+            Math.sqrt(i);
+            work.recordSince(start);
+        }
+        library.rollover().forEach((name, snapshot) -> logger.info(name + ": " + snapshot));
+
         System.out.println("Check logs/app.log for file logs.");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package _GradleProject;
+
+/**
+ * Immutable copy of a {@link LatencyHistogram}'s bucket counts.
+ *
+ * Percentiles, min and max are reported as the highest value that falls in
+ * the same bucket, so they can be a little too high but never too low.
+ */
+public class HistogramSnapshot {
+
+    private final long[] counts;
+    private final long sum;
+    private final long count;
+
+    HistogramSnapshot(long[] counts, long sum) {
+        this.counts = counts;
+        this.sum = sum;
+        long n = 0;
+        for (long c : counts)
+            n += c;
+        this.count = n;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double mean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /** Value at or below which {@code percentile} percent of the samples lie, 0 if there are none. */
+    public long percentile(double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        if (count == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return LatencyHistogram.highestEquivalent(i);
+        }
+        return LatencyHistogram.highestEquivalent(counts.length - 1);
+    }
+
+    public long min() {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0)
+                return LatencyHistogram.highestEquivalent(i);
+        }
+        return 0;
+    }
+
+    public long max() {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] != 0)
+                return LatencyHistogram.highestEquivalent(i);
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.0f p50=%d p90=%d p99=%d p99.9=%d max=%d (ns)",
+                count, mean(), percentile(50), percentile(90), percentile(99), percentile(99.9), max());
+    }
+}
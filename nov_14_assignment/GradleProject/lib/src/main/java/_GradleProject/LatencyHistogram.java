@@ -0,0 +1,115 @@
+package _GradleProject;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds.
+ *
+ * Values are put in log-linear buckets: every power of two is split into
+ * {@code 2^SUB_BITS} equal sub-buckets, so a recorded value is known to
+ * within about 3% (values below 64 are exact). Values above the highest
+ * trackable value are counted in the last bucket.
+ *
+ * Recording is one atomic increment of a bucket and one atomic add to a
+ * sum, with no locks and no allocation. To keep threads from fighting over
+ * the same cache lines, the counters are striped: each thread writes to the
+ * stripe picked by its thread id, and readers add the stripes up.
+ *
+ * {@link #snapshot()} returns everything recorded so far;
+ * {@link #intervalSnapshot()} returns what was recorded since its previous
+ * call, so a reporter can roll over every few seconds without writers ever
+ * seeing a swap or a reset.
+ */
+public class LatencyHistogram {
+
+    static final int SUB_BITS = 5;
+    static final long DEFAULT_HIGHEST = TimeUnit.HOURS.toNanos(1);
+
+    private final long highestTrackable;
+    private final int buckets;
+    private final int stride;
+    private final int stripeMask;
+    private final AtomicLongArray cells;
+
+    private long[] previousCounts;
+    private long previousSum;
+
+    public LatencyHistogram() {
+        this(DEFAULT_HIGHEST, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param highestTrackable largest value kept apart, in nanoseconds
+     * @param stripes          number of counter copies, rounded up to a power of two
+     */
+    public LatencyHistogram(long highestTrackable, int stripes) {
+        if (highestTrackable < 1 || stripes < 1)
+            throw new IllegalArgumentException("highestTrackable and stripes must be positive");
+        this.highestTrackable = highestTrackable;
+        this.buckets = index(highestTrackable) + 1;
+        // the sum sits right after the buckets, then a cache line of padding before the next stripe
+        this.stride = buckets + 8;
+        int n = Integer.highestOneBit(stripes - 1) << 1;
+        this.stripeMask = Math.max(1, n) - 1;
+        this.cells = new AtomicLongArray((stripeMask + 1) * stride);
+        this.previousCounts = new long[buckets];
+    }
+
+    public void record(long nanos) {
+        long value = nanos < 0 ? 0 : Math.min(nanos, highestTrackable);
+        int base = ((int) Thread.currentThread().threadId() & stripeMask) * stride;
+        cells.getAndIncrement(base + index(value));
+        cells.getAndAdd(base + buckets, value);
+    }
+
+    /** Records the time elapsed since {@code startNanos}, a value of System.nanoTime. */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public HistogramSnapshot snapshot() {
+        long[] counts = new long[buckets];
+        long sum = collect(counts);
+        return new HistogramSnapshot(counts, sum);
+    }
+
+    /** What was recorded since the previous call, or since creation for the first call. */
+    public synchronized HistogramSnapshot intervalSnapshot() {
+        long[] counts = new long[buckets];
+        long sum = collect(counts);
+        long[] delta = new long[buckets];
+        for (int i = 0; i < buckets; i++)
+            delta[i] = counts[i] - previousCounts[i];
+        HistogramSnapshot interval = new HistogramSnapshot(delta, sum - previousSum);
+        previousCounts = counts;
+        previousSum = sum;
+        return interval;
+    }
+
+    private long collect(long[] counts) {
+        long sum = 0;
+        for (int base = 0; base < cells.length(); base += stride) {
+            for (int i = 0; i < buckets; i++)
+                counts[i] += cells.get(base + i);
+            sum += cells.get(base + buckets);
+        }
+        return sum;
+    }
+
+    static int index(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BITS);
+        return (shift << SUB_BITS) + (int) (value >>> shift);
+    }
+
+    static long lowestEquivalent(int index) {
+        if (index < 2 << SUB_BITS)
+            return index;
+        int shift = (index >>> SUB_BITS) - 1;
+        return (long) (index - (shift << SUB_BITS)) << shift;
+    }
+
+    static long highestEquivalent(int index) {
+        return lowestEquivalent(index + 1) - 1;
+    }
+}
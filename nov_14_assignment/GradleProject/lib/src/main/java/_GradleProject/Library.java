@@ -3,8 +3,31 @@
  */
 package _GradleProject;
 
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Named latency histograms for a service. Look a histogram up once, keep
+ * it in a field, and call {@link LatencyHistogram#record} on the hot path;
+ * a reporter thread calls {@link #rollover()} on a fixed schedule.
+ */
 public class Library {
+
+    private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
     public boolean someLibraryMethod() {
         return true;
     }
+
+    public LatencyHistogram latency(String name) {
+        return histograms.computeIfAbsent(name, n -> new LatencyHistogram());
+    }
+
+    /** Interval snapshots of every histogram since the previous rollover, by name. */
+    public Map<String, HistogramSnapshot> rollover() {
+        Map<String, HistogramSnapshot> result = new TreeMap<>();
+        histograms.forEach((name, h) -> result.put(name, h.intervalSnapshot()));
+        return result;
+    }
 }
@@ -0,0 +1,77 @@
+package _GradleProject;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+    @Test void bucketsCoverEveryValueInOrder() {
+        for (long v : new long[] { 0, 1, 63, 64, 65, 1000, 123_456_789, Long.MAX_VALUE }) {
+            int i = LatencyHistogram.index(v);
+            assertTrue(LatencyHistogram.lowestEquivalent(i) <= v, "lowest of " + v);
+            assertTrue(LatencyHistogram.highestEquivalent(i) >= v, "highest of " + v);
+        }
+        for (int i = 0; i < LatencyHistogram.index(1L << 40); i++)
+            assertEquals(LatencyHistogram.highestEquivalent(i) + 1, LatencyHistogram.lowestEquivalent(i + 1));
+    }
+
+    @Test void percentilesAreWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(42);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 20);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(values.length, snapshot.count());
+        for (double p : new double[] { 50, 90, 99, 99.9, 100 }) {
+            long exact = values[(int) Math.ceil(p / 100 * values.length) - 1];
+            long reported = snapshot.percentile(p);
+            assertTrue(reported >= exact && reported <= exact + exact / 16 + 1, "p" + p + ": " + reported + " vs " + exact);
+        }
+        assertEquals(snapshot.percentile(100), snapshot.max());
+    }
+
+    @Test void intervalSnapshotsOnlySeeNewSamples() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 10; i++)
+            histogram.record(1000);
+        assertEquals(10, histogram.intervalSnapshot().count());
+        histogram.record(50);
+        HistogramSnapshot interval = histogram.intervalSnapshot();
+        assertEquals(1, interval.count());
+        assertEquals(50, interval.max());
+        assertEquals(50.0, interval.mean());
+        assertEquals(0, histogram.intervalSnapshot().count());
+        assertEquals(11, histogram.snapshot().count());
+    }
+
+    @Test void valuesOutsideTheRangeAreClamped() {
+        LatencyHistogram histogram = new LatencyHistogram(1_000_000, 1);
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(0, snapshot.min());
+        assertTrue(snapshot.max() >= 1_000_000 && snapshot.max() < 1_100_000);
+    }
+
+    @Test void concurrentRecordingLosesNothing() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram(LatencyHistogram.DEFAULT_HIGHEST, 4);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++)
+                    histogram.record(i);
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads)
+            t.join();
+        assertEquals(800_000, histogram.snapshot().count());
+    }
+}
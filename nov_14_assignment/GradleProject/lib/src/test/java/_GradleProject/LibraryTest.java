@@ -11,4 +11,13 @@ class LibraryTest {
         Library classUnderTest = new Library();
         assertTrue(classUnderTest.someLibraryMethod(), "someLibraryMethod should return 'true'");
     }
+
+    @Test void libraryRollsOverNamedHistograms() {
+        Library library = new Library();
+        library.latency("db").record(10);
+        library.latency("http").record(20);
+        assertSame(library.latency("db"), library.latency("db"));
+        assertEquals(1, library.rollover().get("db").count());
+        assertEquals(0, library.rollover().get("http").count());
+    }
 }
@@ -3,11 +3,15 @@ package com.example.demo;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import com.example.demo.exception.BadRequestException;
+
 @RestControllerAdvice
 public class GlobalErrorHandler {
 
@@ -24,4 +28,10 @@ public class GlobalErrorHandler {
 
         return errors;
     }
+
+    @ExceptionHandler(BadRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleBadRequest(BadRequestException exception) {
+        return Map.of("error", exception.getMessage());
+    }
 }
@@ -1,17 +1,37 @@
 package com.example.demo.controller;
 
+import java.time.Duration;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.util.List;
 
 import com.example.demo.request.Order;
+import com.example.demo.request.OrderProductsRequest;
 import com.example.demo.request.Review;
+import com.example.demo.response.BulkResult;
+import com.example.demo.response.CacheStats;
+import com.example.demo.response.OrderPage;
+import com.example.demo.response.OrderProductsResult;
+import com.example.demo.response.OrderResponse;
+import com.example.demo.response.OrderSummary;
+import com.example.demo.response.OrderWithReviewCount;
+import com.example.demo.response.ReviewResponse;
 import com.example.demo.service.OrderService;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
@@ -20,16 +40,54 @@ import lombok.extern.slf4j.Slf4j;
 public class OrderController {
 	@Autowired
 	OrderService orderService;
+	@Value("${app.export.timeout:0}")
+	Duration exportTimeout;
 	@GetMapping("/order")
-	Iterable<Order> getOrder() {
-		System.out.println("Get Request");
+	List<OrderSummary> getAllOrders() {
+		log.info("Get all orders");
 		return orderService.getAllOrders();
 	}
+	@GetMapping(value = "/order", params = "reviewCount=true")
+	List<OrderWithReviewCount> getAllOrdersWithReviewCount() {
+		log.info("Get all orders with review counts");
+		return orderService.getAllOrdersWithReviewCount();
+	}
+	@GetMapping("/orders")
+	OrderPage getOrders(@RequestParam(required = false) String after,
+			@RequestParam(defaultValue = "20") int size) {
+		log.info("Get orders after {} size {}", after, size);
+		return orderService.getOrders(after, Math.max(1, Math.min(size, 100)));
+	}
+	@GetMapping("/orders/{orderId}")
+	OrderResponse getOrder(@PathVariable int orderId) {
+		log.info("Get order {}", orderId);
+		return orderService.getOrder(orderId);
+	}
+	@GetMapping("/orders/cache")
+	CacheStats getOrderCacheStats() {
+		return orderService.getOrderCacheStats();
+	}
+	@GetMapping(value = "/orders/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	WebAsyncTask<Void> exportOrders(HttpServletResponse response) {
+		log.info("Export orders");
+		response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=orders.ndjson");
+		// the timeout applies to this response only; the servlet container treats 0 as none
+		return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+			orderService.exportOrders(response.getOutputStream());
+			return null;
+		});
+	}
 	@PostMapping("/add")
 	void getOrders(@RequestBody @Valid Order hello) {
 		System.out.println("Post request");
 		orderService.saveOrder(hello);
 	}
+	@PostMapping("/orders/bulk")
+	BulkResult addOrders(@RequestBody List<@Valid Order> orders) {
+		log.info("Bulk add {} orders", orders.size());
+		return orderService.saveOrders(orders);
+	}
 	@DeleteMapping("/delete/{orderId}")
 		void saveOrder(@PathVariable @Valid int orderId) {
 		System.out.println(orderId);
@@ -42,11 +100,17 @@ public class OrderController {
 	    }
 
 	    @GetMapping("/orders/{orderId}/reviews")
-	    public Iterable<Review> getReviews(@PathVariable int orderId) {
+	    public List<ReviewResponse> getReviews(@PathVariable int orderId) {
 	        log.info("Get reviews for order {}", orderId);
 	        return orderService.getReviews(orderId);
 	    }
 
+	    @PatchMapping("/orders/{orderId}/products")
+	    public OrderProductsResult updateProducts(@PathVariable int orderId, @RequestBody OrderProductsRequest request) {
+	        log.info("Add {} and remove {} products on order {}", request.add().size(), request.remove().size(), orderId);
+	        return orderService.updateProductsOfOrder(orderId, request.add(), request.remove());
+	    }
+
 	    @DeleteMapping("/reviews/{reviewId}")
 	    public void deleteReview(@PathVariable int reviewId) {
 	        log.warn("Delete review {}", reviewId);
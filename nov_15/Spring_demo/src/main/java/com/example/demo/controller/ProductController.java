@@ -1,7 +1,10 @@
 package com.example.demo.controller;
 
 import com.example.demo.request.Product;
+import com.example.demo.response.ProductResponse;
+import com.example.demo.repository.OrderRepository;
 import com.example.demo.repository.ProductRepository;
+import com.example.demo.service.OrderCache;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
@@ -16,14 +19,20 @@ public class ProductController {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderCache orderCache;
+
     @GetMapping
-    public List<Product> getAllProducts() {
-        return productRepository.findAll();
+    public List<ProductResponse> getAllProducts() {
+        return productRepository.findResponses();
     }
 
     @GetMapping("/{id}")
-    public Product getProductById(@PathVariable int id) {
-        Optional<Product> product = productRepository.findById(id);
+    public ProductResponse getProductById(@PathVariable int id) {
+        Optional<ProductResponse> product = productRepository.findResponseById(id);
         return product.orElse(null); 
     }
 
@@ -37,14 +46,19 @@ public class ProductController {
         return productRepository.findById(id).map(product -> {
             product.setName(updatedProduct.getName());
             product.setCost(updatedProduct.getCost());
-            return productRepository.save(product);
+            Product saved = productRepository.save(product);
+            // cached orders carry the product's name and cost
+            orderCache.invalidateAll(orderRepository.findIdsByProductId(id));
+            return saved;
         }).orElse(null); 
     }
 
     @DeleteMapping("/{id}")
     public String deleteProduct(@PathVariable int id) {
         if(productRepository.existsById(id)) {
+            List<Integer> orderIds = orderRepository.findIdsByProductId(id);
             productRepository.deleteById(id);
+            orderCache.invalidateAll(orderIds);
             return "Product deleted successfully";
         } else {
             return "Product not found";
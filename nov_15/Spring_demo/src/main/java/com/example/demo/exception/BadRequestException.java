@@ -0,0 +1,13 @@
+package com.example.demo.exception;
+
+/**
+ * Thrown when a request is well-formed but carries a value the API cannot
+ * accept. Its message is returned to the client, so it must not contain
+ * anything internal.
+ */
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -1,10 +1,57 @@
 package com.example.demo.repository;
 
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.demo.request.Order;
+import com.example.demo.response.OrderSummary;
+import com.example.demo.response.OrderWithReviewCount;
 @Repository
 public interface OrderRepository extends CrudRepository<Order,Integer> {
 
+    // read models for list endpoints: only the order's own columns, no
+    // entities in the persistence context and no lazy collections to walk
+    @Query("select new com.example.demo.response.OrderSummary(o.id, o.item, o.price, o.quantity, o.address) "
+            + "from Order o order by o.id")
+    List<OrderSummary> findSummaries();
+
+    @Query("select new com.example.demo.response.OrderWithReviewCount(o.id, o.item, o.price, o.quantity, o.address, "
+            + "size(o.reviews)) from Order o order by o.id")
+    List<OrderWithReviewCount> findSummariesWithReviewCount();
+
+    @Query("select o.id from Order o where o.id > :after order by o.id")
+    List<Integer> findIdsAfter(@Param("after") int after, Pageable page);
+
+    @Query("select o.id from Order o join o.products p where p.id = :productId")
+    List<Integer> findIdsByProductId(@Param("productId") int productId);
+
+    // set-based changes to the join table: loading the products bag and
+    // saving it makes Hibernate delete and re-insert every row of the order
+    @Modifying
+    @Query(value = "insert into order_products (order_id, product_id) "
+            + "select :orderId, p.id from product p where p.id in (:productIds) "
+            + "and not exists (select 1 from order_products op where op.order_id = :orderId and op.product_id = p.id)",
+            nativeQuery = true)
+    int addProducts(@Param("orderId") int orderId, @Param("productIds") Collection<Integer> productIds);
+
+    @Modifying
+    @Query(value = "delete from order_products where order_id = :orderId and product_id in (:productIds)",
+            nativeQuery = true)
+    int removeProducts(@Param("orderId") int orderId, @Param("productIds") Collection<Integer> productIds);
+
+    // reviews and products are both bags, so they are fetched in two queries;
+    // fetching both in one would fail with MultipleBagFetchException
+    @EntityGraph(attributePaths = "reviews")
+    List<Order> findWithReviewsByIdIn(Collection<Integer> ids);
+
+    @EntityGraph(attributePaths = "products")
+    List<Order> findWithProductsByIdIn(Collection<Integer> ids);
 }
@@ -1,13 +1,24 @@
 package com.example.demo.repository;
 
+import java.util.List;
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.demo.request.Product;
+import com.example.demo.response.ProductResponse;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Integer> {
 
+    @Query("select new com.example.demo.response.ProductResponse(p.id, p.name, p.cost) from Product p order by p.id")
+    List<ProductResponse> findResponses();
+
+    @Query("select new com.example.demo.response.ProductResponse(p.id, p.name, p.cost) from Product p where p.id = :id")
+    Optional<ProductResponse> findResponseById(@Param("id") int id);
 }
 
 
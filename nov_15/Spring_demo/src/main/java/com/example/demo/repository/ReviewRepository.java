@@ -1,8 +1,15 @@
 package com.example.demo.repository;
 
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.demo.request.Review;
 
 public interface ReviewRepository extends JpaRepository<Review, Integer> {
+
+    @Query("select r.order.id from Review r where r.id = :id")
+    Optional<Integer> findOrderIdById(@Param("id") int id);
 }
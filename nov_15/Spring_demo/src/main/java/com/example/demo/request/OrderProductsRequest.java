@@ -0,0 +1,15 @@
+package com.example.demo.request;
+
+import java.util.List;
+
+/** Product ids to link to and unlink from one order; either list may be missing. */
+public record OrderProductsRequest(List<Integer> add, List<Integer> remove) {
+
+    public List<Integer> add() {
+        return add == null ? List.of() : add;
+    }
+
+    public List<Integer> remove() {
+        return remove == null ? List.of() : remove;
+    }
+}
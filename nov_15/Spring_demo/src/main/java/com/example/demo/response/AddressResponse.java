@@ -0,0 +1,12 @@
+package com.example.demo.response;
+
+import com.example.demo.request.Address;
+
+public record AddressResponse(String village, String state, String pincode) {
+
+    /** Copy of {@code address}, or null for an order without one. */
+    public static AddressResponse from(Address address) {
+        return address == null ? null
+                : new AddressResponse(address.getVillage(), address.getState(), address.getPincode());
+    }
+}
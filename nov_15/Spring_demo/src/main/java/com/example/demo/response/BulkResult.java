@@ -0,0 +1,5 @@
+package com.example.demo.response;
+
+/** Outcome of a bulk order insert: rows written, the number of flushes and the time taken. */
+public record BulkResult(int orders, int reviews, int flushes, long millis) {
+}
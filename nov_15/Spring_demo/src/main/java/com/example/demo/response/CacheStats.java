@@ -0,0 +1,6 @@
+package com.example.demo.response;
+
+/** Counters of a cache since startup; {@code hitRate} is hits / (hits + misses). */
+public record CacheStats(int size, int maxSize, long hits, long misses, double hitRate, long evictions,
+        long expirations, long invalidations) {
+}
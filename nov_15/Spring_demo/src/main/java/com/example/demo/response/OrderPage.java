@@ -0,0 +1,33 @@
+package com.example.demo.response;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import com.example.demo.exception.BadRequestException;
+
+/**
+ * One page of orders in id order. {@code next} is the token to pass as
+ * {@code after} for the following page, or null on the last page.
+ */
+public record OrderPage(List<OrderResponse> orders, String next) {
+
+    public static String token(int lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("order:" + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Id after which the page starts; 0 for a missing token. */
+    public static int afterId(String token) {
+        if (token == null || token.isEmpty())
+            return 0;
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (value.startsWith("order:"))
+                return Integer.parseInt(value.substring("order:".length()));
+        } catch (IllegalArgumentException e) {
+            // not base64, or not a number
+        }
+        throw new BadRequestException("invalid page token");
+    }
+}
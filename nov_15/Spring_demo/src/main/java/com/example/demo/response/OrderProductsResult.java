@@ -0,0 +1,5 @@
+package com.example.demo.response;
+
+/** Join rows actually written: links that already existed, or product ids that do not, are not counted. */
+public record OrderProductsResult(int orderId, int added, int removed) {
+}
@@ -0,0 +1,16 @@
+package com.example.demo.response;
+
+import java.util.List;
+
+import com.example.demo.request.Order;
+
+public record OrderResponse(int id, String item, int price, int quantity, AddressResponse address,
+        List<ReviewResponse> reviews, List<ProductResponse> products) {
+
+    public static OrderResponse from(Order order) {
+        return new OrderResponse(order.getId(), order.getItem(), order.getPrice(), order.getQuantity(),
+                AddressResponse.from(order.getAddress()),
+                order.getReviews().stream().map(ReviewResponse::from).toList(),
+                order.getProducts().stream().map(ProductResponse::from).toList());
+    }
+}
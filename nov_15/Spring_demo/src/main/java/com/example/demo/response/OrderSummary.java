@@ -0,0 +1,18 @@
+package com.example.demo.response;
+
+import com.example.demo.request.Address;
+import com.example.demo.request.Order;
+
+/** An order's own columns, without its reviews or products. */
+public record OrderSummary(int id, String item, int price, int quantity, AddressResponse address) {
+
+    /** For JPQL constructor expressions, which select the embedded Address. */
+    public OrderSummary(int id, String item, int price, int quantity, Address address) {
+        this(id, item, price, quantity, AddressResponse.from(address));
+    }
+
+    public static OrderSummary from(Order order) {
+        return new OrderSummary(order.getId(), order.getItem(), order.getPrice(), order.getQuantity(),
+                order.getAddress());
+    }
+}
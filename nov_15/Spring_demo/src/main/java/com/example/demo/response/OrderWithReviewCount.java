@@ -0,0 +1,13 @@
+package com.example.demo.response;
+
+import com.example.demo.request.Address;
+
+/** An order's own columns and how many reviews it has, without the reviews themselves. */
+public record OrderWithReviewCount(int id, String item, int price, int quantity, AddressResponse address,
+        int reviewCount) {
+
+    /** For JPQL constructor expressions, which select the embedded Address. */
+    public OrderWithReviewCount(int id, String item, int price, int quantity, Address address, int reviewCount) {
+        this(id, item, price, quantity, AddressResponse.from(address), reviewCount);
+    }
+}
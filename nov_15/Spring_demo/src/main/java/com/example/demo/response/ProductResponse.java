@@ -0,0 +1,10 @@
+package com.example.demo.response;
+
+import com.example.demo.request.Product;
+
+public record ProductResponse(int id, String name, int cost) {
+
+    public static ProductResponse from(Product product) {
+        return new ProductResponse(product.getId(), product.getName(), product.getCost());
+    }
+}
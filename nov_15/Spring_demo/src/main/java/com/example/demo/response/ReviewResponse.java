@@ -0,0 +1,10 @@
+package com.example.demo.response;
+
+import com.example.demo.request.Review;
+
+public record ReviewResponse(int id, String name, String comment) {
+
+    public static ReviewResponse from(Review review) {
+        return new ReviewResponse(review.getId(), review.getName(), review.getComment());
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.demo.service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.response.CacheStats;
+import com.example.demo.response.OrderResponse;
+
+/**
+ * In-process cache of whole orders (with their reviews and products) by
+ * id. It holds about {@code app.cache.orders.max-size} orders and an order
+ * is reloaded once it is older than {@code app.cache.orders.ttl}.
+ *
+ * Hits only read a ConcurrentHashMap and set a flag on the entry, so
+ * readers never wait on each other. When the cache is full, a CLOCK sweep
+ * over entries in insertion order gives recently read ones a second
+ * chance and evicts the first one that was not read since the last pass,
+ * which approximates least-recently-read without a shared access list.
+ *
+ * A miss first puts a token under its key and replaces it with the loaded
+ * order only if the token is still there. Invalidating a key removes the
+ * order or the token, so a load that overlapped a write to the same order
+ * is returned to its caller but not cached, while loads of other orders
+ * are unaffected.
+ */
+@Component
+public class OrderCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    /** A {@link Cached} order, or a {@link Loading} token while a miss is being loaded. */
+    private final ConcurrentHashMap<Integer, Object> entries = new ConcurrentHashMap<>();
+    /** Cached entries in insertion order; may still hold entries that have since been removed. */
+    private final ConcurrentLinkedQueue<Cached> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private static final class Cached {
+        final int orderId;
+        final OrderResponse order;
+        final long loadedAt;
+        volatile boolean referenced;
+
+        Cached(int orderId, OrderResponse order, long loadedAt) {
+            this.orderId = orderId;
+            this.order = order;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private static final class Loading {
+    }
+
+    public OrderCache(@Value("${app.cache.orders.max-size:10000}") int maxSize,
+            @Value("${app.cache.orders.ttl:5m}") Duration ttl) {
+        if (maxSize <= 0)
+            throw new IllegalStateException("app.cache.orders.max-size must be positive, was " + maxSize);
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /** The cached order, or the one {@code loader} returns; null (not cached) if the loader finds none. */
+    public OrderResponse get(int orderId, IntFunction<OrderResponse> loader) {
+        Object current = entries.get(orderId);
+        if (current instanceof Cached cached) {
+            if (System.nanoTime() - cached.loadedAt < ttlNanos) {
+                if (!cached.referenced)
+                    cached.referenced = true;
+                hits.increment();
+                return cached.order;
+            }
+            if (entries.remove(orderId, cached)) {
+                size.decrementAndGet();
+                expirations.increment();
+            }
+            current = null;
+        }
+        misses.increment();
+        // only one miss per key caches its result; others, and misses while a load is in flight, just load
+        Loading token = new Loading();
+        boolean owner = current == null && entries.putIfAbsent(orderId, token) == null;
+        OrderResponse order;
+        try {
+            order = loader.apply(orderId);
+        } catch (RuntimeException e) {
+            if (owner)
+                entries.remove(orderId, token);
+            throw e;
+        }
+        if (owner) {
+            Cached cached = order == null ? null : new Cached(orderId, order, System.nanoTime());
+            if (cached != null && entries.replace(orderId, token, cached)) {
+                size.incrementAndGet();
+                clock.add(cached);
+                if (queued.incrementAndGet() > 2 * maxSize)
+                    purge();
+                evictIfFull();
+            } else {
+                entries.remove(orderId, token);
+            }
+        }
+        return order;
+    }
+
+    public void invalidate(int orderId) {
+        if (entries.remove(orderId) instanceof Cached) {
+            size.decrementAndGet();
+            invalidations.increment();
+        }
+    }
+
+    public void invalidateAll(Collection<Integer> orderIds) {
+        for (Integer orderId : orderIds)
+            invalidate(orderId);
+    }
+
+    public CacheStats stats() {
+        long hit = hits.sum(), miss = misses.sum();
+        return new CacheStats(size.get(), maxSize, hit, miss, hit + miss == 0 ? 0 : (double) hit / (hit + miss),
+                evictions.sum(), expirations.sum(), invalidations.sum());
+    }
+
+    private void evictIfFull() {
+        while (size.get() > maxSize) {
+            Cached cached = clock.poll();
+            if (cached == null)
+                return;
+            if (entries.get(cached.orderId) != cached) {
+                queued.decrementAndGet();
+            } else if (cached.referenced) {
+                cached.referenced = false;
+                clock.add(cached);
+            } else {
+                queued.decrementAndGet();
+                if (entries.remove(cached.orderId, cached)) {
+                    size.decrementAndGet();
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    /** Drops queue entries whose orders were invalidated or expired, so heavy write traffic cannot grow the queue. */
+    private void purge() {
+        for (Iterator<Cached> it = clock.iterator(); it.hasNext();) {
+            Cached cached = it.next();
+            if (entries.get(cached.orderId) != cached) {
+                it.remove();
+                queued.decrementAndGet();
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.service;
 
+import com.example.demo.exception.BadRequestException;
 import com.example.demo.request.Order;
 import com.example.demo.request.Product;
 import com.example.demo.request.Review;
@@ -7,11 +8,43 @@ import com.example.demo.repository.OrderRepository;
 import com.example.demo.repository.ProductRepository;
 import com.example.demo.repository.ReviewRepository;
 
+import com.example.demo.response.BulkResult;
+import com.example.demo.response.CacheStats;
+import com.example.demo.response.OrderPage;
+import com.example.demo.response.OrderProductsResult;
+import com.example.demo.response.OrderResponse;
+import com.example.demo.response.OrderSummary;
+import com.example.demo.response.OrderWithReviewCount;
+import com.example.demo.response.ProductResponse;
+import com.example.demo.response.ReviewResponse;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import org.hibernate.jpa.HibernateHints;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -26,16 +59,185 @@ public class OrderService {
     @Autowired
     private ProductRepository productRepo;
 
-    public Iterable<Order> getAllOrders() {
-        return orderRepo.findAll();
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private OrderCache orderCache;
+
+    private TransactionTemplate transaction;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.bulk.flush-size:500}")
+    private int flushSize;
+
+    @Value("${app.export.fetch-size:" + Integer.MIN_VALUE + "}")
+    private int exportFetchSize;
+
+    @PostConstruct
+    void checkSettings() {
+        if (flushSize <= 0)
+            throw new IllegalStateException("app.bulk.flush-size must be positive, was " + flushSize);
+    }
+
+    @Autowired
+    void setTransactionManager(PlatformTransactionManager transactionManager) {
+        transaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    public List<OrderSummary> getAllOrders() {
+        return orderRepo.findSummaries();
+    }
+
+    public List<OrderWithReviewCount> getAllOrdersWithReviewCount() {
+        return orderRepo.findSummariesWithReviewCount();
+    }
+
+    /**
+     * Up to {@code size} orders with ids after the one encoded in
+     * {@code after}, with their reviews and products, in three queries
+     * whatever the page size: the ids, then the orders with reviews, then
+     * the same orders with products.
+     */
+    @Transactional(readOnly = true)
+    public OrderPage getOrders(String after, int size) {
+        List<Integer> ids = orderRepo.findIdsAfter(OrderPage.afterId(after), PageRequest.ofSize(size + 1));
+        boolean more = ids.size() > size;
+        if (more)
+            ids = ids.subList(0, size);
+        if (ids.isEmpty())
+            return new OrderPage(List.of(), null);
+
+        List<Order> orders = orderRepo.findWithReviewsByIdIn(ids);
+        orderRepo.findWithProductsByIdIn(ids);
+        List<OrderResponse> page = orders.stream()
+                .sorted(Comparator.comparingInt(Order::getId))
+                .map(OrderResponse::from)
+                .toList();
+        return new OrderPage(page, more ? OrderPage.token(ids.get(ids.size() - 1)) : null);
+    }
+
+    /**
+     * Writes every order to {@code out} as one JSON object per line, in id
+     * order. Rows come through a forward-only cursor as {@link OrderSummary}
+     * projections, so no entity is ever managed and memory does not grow
+     * with the table. Reviews and products are left out: loading them would
+     * need more queries while the cursor is open. Returns the number of
+     * orders written.
+     */
+    @Transactional(readOnly = true)
+    public long exportOrders(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(OrderSummary.class);
+        OutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+        long count = 0;
+        try (Stream<OrderSummary> orders = entityManager
+                .createQuery("select new com.example.demo.response.OrderSummary(o.id, o.item, o.price, o.quantity, "
+                        + "o.address) from Order o order by o.id", OrderSummary.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                .getResultStream()) {
+            for (OrderSummary order : (Iterable<OrderSummary>) orders::iterator) {
+                buffered.write(writer.writeValueAsBytes(order));
+                buffered.write('\n');
+                count++;
+            }
+        }
+        buffered.flush();
+        log.info("Exported {} orders", count);
+        return count;
+    }
+
+    /**
+     * The order with its reviews and products, from {@link OrderCache} when
+     * it is there. Only a miss opens a transaction, which loads the order in
+     * two queries.
+     */
+    public OrderResponse getOrder(int orderId) {
+        OrderResponse order = orderCache.get(orderId, this::loadOrder);
+        if (order == null)
+            throw new RuntimeException("Order not found");
+        return order;
+    }
+
+    private OrderResponse loadOrder(int orderId) {
+        return readOnlyTransaction.execute(status -> {
+            List<Order> orders = orderRepo.findWithReviewsByIdIn(List.of(orderId));
+            if (orders.isEmpty())
+                return null;
+            orderRepo.findWithProductsByIdIn(List.of(orderId));
+            return OrderResponse.from(orders.get(0));
+        });
+    }
+
+    public CacheStats getOrderCacheStats() {
+        return orderCache.stats();
     }
 
     public Order saveOrder(Order o) {
-        return orderRepo.save(o);
+        Order saved = orderRepo.save(o);
+        orderCache.invalidate(saved.getId());
+        return saved;
+    }
+
+    /**
+     * Inserts all {@code orders} and their reviews in one transaction.
+     * Every {@code app.bulk.flush-size} orders the pending inserts are
+     * flushed as JDBC batches and the persistence context is cleared, so
+     * memory stays flat however many orders arrive. Ids come from the
+     * pooled sequences, one round trip per 50 rows, which is what lets
+     * Hibernate batch the inserts at all. Client ids are ignored, missing
+     * reviews count as none, and orders carrying products are rejected
+     * before anything is written: products are linked afterwards with
+     * PATCH /orders/{id}/products.
+     */
+    @Transactional
+    public BulkResult saveOrders(List<Order> orders) {
+        for (int i = 0; i < orders.size(); i++) {
+            if (orders.get(i) == null)
+                throw new BadRequestException("orders[" + i + "] is null");
+            List<Product> products = orders.get(i).getProducts();
+            if (products != null && !products.isEmpty())
+                throw new BadRequestException("orders[" + i + "]: products cannot be set in a bulk insert");
+        }
+        long start = System.nanoTime();
+        int reviews = 0, flushes = 0;
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            order.setId(0);
+            if (order.getReviews() == null)
+                order.setReviews(new ArrayList<>());
+            if (order.getProducts() == null)
+                order.setProducts(new ArrayList<>());
+            for (Review review : order.getReviews()) {
+                review.setId(0);
+                review.setOrder(order);
+                reviews++;
+            }
+            entityManager.persist(order);
+            if ((i + 1) % flushSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+                flushes++;
+            }
+        }
+        if (orders.size() % flushSize != 0) {
+            entityManager.flush();
+            entityManager.clear();
+            flushes++;
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Bulk inserted {} orders and {} reviews in {} ms", orders.size(), reviews, millis);
+        return new BulkResult(orders.size(), reviews, flushes, millis);
     }
 
     public void deleteOrder(int id) {
         orderRepo.deleteById(id);
+        orderCache.invalidate(id);
     }
 
     public Order addReview(int orderId, Review review) {
@@ -44,18 +246,19 @@ public class OrderService {
 
         review.setOrder(order);
         reviewRepo.save(review);
+        orderCache.invalidate(orderId);
 
         return order;
     }
 
-    public Iterable<Review> getReviews(int orderId) {
-        Order order = orderRepo.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-        return order.getReviews();
+    public List<ReviewResponse> getReviews(int orderId) {
+        return getOrder(orderId).reviews();
     }
 
     public void deleteReview(int reviewId) {
+        Optional<Integer> orderId = reviewRepo.findOrderIdById(reviewId);
         reviewRepo.deleteById(reviewId);
+        orderId.ifPresent(orderCache::invalidate);
     }
 
     public Order addProductToOrder(int orderId, int productId) {
@@ -65,7 +268,9 @@ public class OrderService {
                 .orElseThrow(() -> new RuntimeException("Product not found"));
 
         order.getProducts().add(product);
-        return orderRepo.save(order);
+        Order saved = orderRepo.save(order);
+        orderCache.invalidate(orderId);
+        return saved;
     }
 
     public Order removeProductFromOrder(int orderId, int productId) {
@@ -75,12 +280,31 @@ public class OrderService {
                 .orElseThrow(() -> new RuntimeException("Product not found"));
 
         order.getProducts().remove(product);
-        return orderRepo.save(order);
+        Order saved = orderRepo.save(order);
+        orderCache.invalidate(orderId);
+        return saved;
     }
 
-    public List<Product> getProductsOfOrder(int orderId) {
-        Order order = orderRepo.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-        return order.getProducts();
+    /**
+     * Unlinks the {@code remove} products from the order, then links the
+     * {@code add} ones, with one statement each on {@code order_products}
+     * however many products the order has. Ids that are already linked or
+     * that match no product are skipped. The cached order is dropped once
+     * the change has committed.
+     */
+    public OrderProductsResult updateProductsOfOrder(int orderId, Collection<Integer> add, Collection<Integer> remove) {
+        OrderProductsResult result = transaction.execute(status -> {
+            if (!orderRepo.existsById(orderId))
+                throw new RuntimeException("Order not found");
+            int removed = remove.isEmpty() ? 0 : orderRepo.removeProducts(orderId, remove);
+            int added = add.isEmpty() ? 0 : orderRepo.addProducts(orderId, add);
+            return new OrderProductsResult(orderId, added, removed);
+        });
+        orderCache.invalidate(orderId);
+        return result;
+    }
+
+    public List<ProductResponse> getProductsOfOrder(int orderId) {
+        return getOrder(orderId).products();
     }
 }
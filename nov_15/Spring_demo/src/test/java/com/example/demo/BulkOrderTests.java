@@ -0,0 +1,83 @@
+package com.example.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.demo.repository.OrderRepository;
+import com.example.demo.repository.ReviewRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:bulk;MODE=MySQL",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.show-sql=false",
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"app.bulk.flush-size=100" })
+@AutoConfigureMockMvc
+class BulkOrderTests {
+
+	@Autowired
+	MockMvc mvc;
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+	@Autowired
+	OrderRepository orderRepo;
+	@Autowired
+	ReviewRepository reviewRepo;
+
+	@Test
+	void insertsOrdersAndReviewsInBatches() throws Exception {
+		int orders = 1000;
+		StringBuilder body = new StringBuilder("[");
+		for (int i = 0; i < orders; i++) {
+			if (i > 0)
+				body.append(',');
+			body.append("{\"id\":7,\"item\":\"item").append(i).append("\",\"price\":").append(i)
+					.append(",\"quantity\":1,\"address\":{\"village\":\"v\",\"state\":\"s\",\"pincode\":\"1\"}")
+					.append(i % 2 == 0 ? ",\"reviews\":[{\"name\":\"a\",\"comment\":\"b\"},{\"name\":\"c\",\"comment\":\"d\"}]}"
+							: ",\"reviews\":null}");
+		}
+		body.append(']');
+		long ordersBefore = orderRepo.count(), reviewsBefore = reviewRepo.count();
+		Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+
+		mvc.perform(post("/orders/bulk").contentType(MediaType.APPLICATION_JSON).content(body.toString()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.orders").value(orders))
+				.andExpect(jsonPath("$.reviews").value(orders))
+				.andExpect(jsonPath("$.flushes").value(10));
+
+		// 1000 orders and 1000 reviews: 40 sequence calls plus two insert
+		// statements per flush; one statement per row would be over 2000
+		assertThat(stats.getPrepareStatementCount()).isLessThan(100);
+		assertThat(orderRepo.count() - ordersBefore).isEqualTo(orders);
+		assertThat(reviewRepo.count() - reviewsBefore).isEqualTo(orders);
+	}
+
+	@Test
+	void rejectsProductsInBulkOrders() throws Exception {
+		long before = orderRepo.count();
+		mvc.perform(post("/orders/bulk").contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"item\":\"a\",\"quantity\":1},{\"item\":\"b\",\"quantity\":1,\"products\":[{\"id\":999}]}]"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("orders[1]: products cannot be set in a bulk insert"));
+		assertThat(orderRepo.count()).isEqualTo(before);
+	}
+}